@@ -0,0 +1,110 @@
+package com.healthcare.appointmentsystem.archive;
+
+import com.healthcare.appointmentsystem.repository.ArchivedAppointmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Nightly job that moves completed and cancelled appointments older than
+ * app.archive.after-months from the live table into appointments_archive.
+ *
+ * Every batch runs in its own short transaction, so the job never holds
+ * locks on more than one batch of rows and can stop at any point. The
+ * cutoff is aligned to the start of a month; with the live table
+ * partitioned by month, old partitions empty out whole.
+ */
+@Component
+public class AppointmentArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentArchiver.class);
+
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int afterMonths;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    // Archiver metrics
+    private final AtomicLong archivedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunMs;
+    private volatile long lastRunArchived;
+
+    public AppointmentArchiver(ArchivedAppointmentRepository archivedAppointmentRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.archive.enabled:true}") boolean enabled,
+                               @Value("${app.archive.after-months:12}") int afterMonths,
+                               @Value("${app.archive.batch-size:500}") int batchSize,
+                               @Value("${app.archive.max-batches-per-run:1000}") int maxBatchesPerRun) {
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.afterMonths = afterMonths;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 30 2 * * *}")
+    public void archive() {
+        if (enabled) {
+            archiveBefore(cutoff());
+        }
+    }
+
+    // Moves everything finished before the cutoff, returns the number of rows moved
+    public long archiveBefore(LocalDateTime cutoff) {
+        long started = System.currentTimeMillis();
+        long moved = 0;
+        int batches = 0;
+        Integer count;
+        // Keep going while batches come back full, capped so one run cannot take all night
+        do {
+            count = transactionTemplate.execute(status -> archivedAppointmentRepository.archiveBatch(cutoff, batchSize));
+            if (count == null || count == 0) {
+                break;
+            }
+            moved += count;
+            batchCount.incrementAndGet();
+        } while (count == batchSize && ++batches < maxBatchesPerRun);
+
+        archivedCount.addAndGet(moved);
+        lastRunArchived = moved;
+        lastRunMs = System.currentTimeMillis() - started;
+        lastRunAt = LocalDateTime.now();
+        if (moved > 0) {
+            logger.info("Archived {} appointments before {} in {} ms", moved, cutoff, lastRunMs);
+        }
+        return moved;
+    }
+
+    // First day of the month, afterMonths back
+    public LocalDateTime cutoff() {
+        return LocalDate.now().withDayOfMonth(1).minusMonths(afterMonths).atStartOfDay();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("cutoff", cutoff());
+        metrics.put("archived", archivedCount.get());
+        metrics.put("batches", batchCount.get());
+        metrics.put("lastRunAt", lastRunAt);
+        metrics.put("lastRunMs", lastRunMs);
+        metrics.put("lastRunArchived", lastRunArchived);
+        metrics.put("archiveRows", archivedAppointmentRepository.count());
+        return metrics;
+    }
+}
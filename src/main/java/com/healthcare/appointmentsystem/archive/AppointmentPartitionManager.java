@@ -0,0 +1,96 @@
+package com.healthcare.appointmentsystem.archive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps monthly partitions of the appointments table created ahead of time.
+ *
+ * Only does anything once the table has been converted with
+ * db/appointments_partitioning.sql; on a plain table (e.g. one created by
+ * ddl-auto in development) it stays idle. Rows outside every monthly range
+ * land in appointments_default instead of failing the insert.
+ */
+@Component
+public class AppointmentPartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentPartitionManager.class);
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private volatile boolean partitioned;
+
+    public AppointmentPartitionManager(JdbcTemplate jdbcTemplate,
+                                       @Value("${app.archive.partitions-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensurePartitions();
+    }
+
+    @Scheduled(cron = "${app.archive.partition-cron:0 0 3 * * *}")
+    public void ensurePartitions() {
+        try {
+            partitioned = isPartitioned();
+            if (!partitioned) {
+                return;
+            }
+            LocalDate month = LocalDate.now().withDayOfMonth(1);
+            for (int i = 0; i <= monthsAhead; i++) {
+                createPartition(month.plusMonths(i));
+            }
+        } catch (RuntimeException ex) {
+            // Bookings still land in the default partition, try again on the next run
+            logger.warn("Could not create appointment partitions", ex);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("partitioned", partitioned);
+        if (partitioned) {
+            List<String> partitions = jdbcTemplate.queryForList(
+                    "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                    "WHERE i.inhparent = 'appointments'::regclass ORDER BY c.relname", String.class);
+            metrics.put("partitions", partitions);
+            metrics.put("defaultPartitionRows", jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM appointments_default", Long.class));
+        }
+        return metrics;
+    }
+
+    private boolean isPartitioned() {
+        Boolean result = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid " +
+                "WHERE c.relname = 'appointments' AND pg_table_is_visible(c.oid))", Boolean.class);
+        return Boolean.TRUE.equals(result);
+    }
+
+    private void createPartition(LocalDate month) {
+        String name = "appointments_" + month.format(SUFFIX);
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+        if (Boolean.TRUE.equals(exists)) {
+            return;
+        }
+        // Dates come from LocalDate, nothing user supplied ends up in the DDL
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF appointments " +
+                "FOR VALUES FROM ('" + month + "') TO ('" + month.plusMonths(1) + "')");
+        logger.info("Created appointment partition {}", name);
+    }
+}
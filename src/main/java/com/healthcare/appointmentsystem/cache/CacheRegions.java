@@ -0,0 +1,28 @@
+package com.healthcare.appointmentsystem.cache;
+
+import org.hibernate.cache.spi.RegionFactory;
+
+import java.util.List;
+
+/**
+ * Names of the Hibernate second-level cache regions. Entity regions hold
+ * rows by id; query regions hold the ids a cached query returned, checked
+ * against the update timestamps of the tables the query reads.
+ */
+public final class CacheRegions {
+
+    public static final String DOCTORS = "doctors";
+    public static final String DOCTOR_AVAILABILITIES = "doctorAvailabilities";
+    public static final String USERS = "users";
+
+    public static final String DOCTORS_BY_SPECIALIZATION = "query.doctorsBySpecialization";
+    public static final String AVAILABILITIES_FOR_DATE = "query.availabilitiesForDate";
+
+    public static final String DEFAULT_QUERY_RESULTS = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    public static final String UPDATE_TIMESTAMPS = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    public static final List<String> ENTITY_REGIONS = List.of(DOCTORS, DOCTOR_AVAILABILITIES, USERS);
+    public static final List<String> QUERY_REGIONS = List.of(DOCTORS_BY_SPECIALIZATION, AVAILABILITIES_FOR_DATE, DEFAULT_QUERY_RESULTS);
+
+    private CacheRegions() {}
+}
@@ -0,0 +1,101 @@
+package com.healthcare.appointmentsystem.cache;
+
+import com.healthcare.appointmentsystem.coordination.InvalidationBus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the second-level cache coherent across nodes.
+ *
+ * Hibernate updates the local regions itself, but the cache is per JVM.
+ * After a cached entity is committed, its name and id are announced on the
+ * invalidation bus; the other nodes drop that entry and their cached query
+ * results, since their update timestamps never saw the write. Inserts only
+ * drop query results. Entity ids are assumed to be Long.
+ */
+@Component
+public class EntityCacheCoherence implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final String TOPIC = "cache:entity";
+    private static final String ALL = "*";
+
+    private final InvalidationBus bus;
+    private final Cache cache;
+
+    public EntityCacheCoherence(EntityManagerFactory entityManagerFactory, InvalidationBus bus) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.bus = bus;
+        this.cache = sessionFactory.getCache();
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        bus.subscribe(TOPIC, this::onRemoteChange);
+    }
+
+    /**
+     * Drops a whole entity region on the other nodes. For bulk updates, which
+     * Hibernate already handles locally by invalidating the region but which
+     * carry no ids to announce.
+     */
+    public void evictEverywhere(Class<?> entityType) {
+        bus.publish(TOPIC, entityType.getName() + "|" + ALL);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        bus.publish(TOPIC, event.getPersister().getEntityName() + "|");
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        bus.publish(TOPIC, event.getPersister().getEntityName() + "|" + event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        bus.publish(TOPIC, event.getPersister().getEntityName() + "|" + event.getId());
+    }
+
+    // Only entities that live in a region are worth announcing
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void onRemoteChange(String message) {
+        int separator = message.indexOf('|');
+        String entityName = message.substring(0, separator);
+        String id = message.substring(separator + 1);
+        if (ALL.equals(id)) {
+            cache.evictEntityData(entityName);
+        } else if (!id.isEmpty()) {
+            cache.evictEntityData(entityName, Long.valueOf(id));
+        }
+        cache.evictQueryRegions();
+    }
+}
@@ -0,0 +1,52 @@
+package com.healthcare.appointmentsystem.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hit, miss and put counts per second-level cache region, read from the
+ * Hibernate statistics (app.cache.second-level.statistics).
+ */
+@Component
+public class SecondLevelCacheMetrics {
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.put(name, toMap(region));
+            }
+        }
+        metrics.put("regions", regions);
+        metrics.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        metrics.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+        metrics.put("queryCachePuts", statistics.getQueryCachePutCount());
+        return metrics;
+    }
+
+    private static Map<String, Object> toMap(CacheRegionStatistics region) {
+        long hits = region.getHitCount();
+        long misses = region.getMissCount();
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("hits", hits);
+        map.put("misses", misses);
+        map.put("puts", region.getPutCount());
+        map.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return map;
+    }
+}
@@ -0,0 +1,19 @@
+package com.healthcare.appointmentsystem.capacity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Effective booking limits of a doctor, overbooking already applied.
+ * A per-day limit of 0 means the day is only bounded by the schedule.
+ */
+@Getter
+@AllArgsConstructor
+public class CapacityLimits {
+    private final int maxPerSlot;
+    private final int maxPerDay;
+
+    public boolean isGroupSlot() {
+        return maxPerSlot > 1;
+    }
+}
@@ -0,0 +1,11 @@
+package com.healthcare.appointmentsystem.capacity;
+
+import com.healthcare.appointmentsystem.model.Doctor;
+
+/**
+ * Decides how many patients a doctor may see per slot and per day.
+ * Provide another bean of this type to replace the configuration-driven default.
+ */
+public interface CapacityPolicy {
+    CapacityLimits limitsFor(Doctor doctor);
+}
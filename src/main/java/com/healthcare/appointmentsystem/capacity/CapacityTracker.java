@@ -0,0 +1,229 @@
+package com.healthcare.appointmentsystem.capacity;
+
+import com.healthcare.appointmentsystem.event.AppointmentChangedEvent;
+import com.healthcare.appointmentsystem.event.AvailabilityChangedEvent;
+import com.healthcare.appointmentsystem.model.AppointmentStatus;
+import com.healthcare.appointmentsystem.repository.AppointmentRepository;
+import com.healthcare.appointmentsystem.schedule.BookedInterval;
+import com.healthcare.appointmentsystem.util.TimeCodec;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory booking counters per doctor and day, so capacity checks need no
+ * count query per booking.
+ *
+ * A day is loaded from the database on first use. Reservations increment the
+ * counters with compare-and-set before the appointment is saved, so two
+ * concurrent bookings cannot both take the last place; a rollback gives the
+ * place back. Cancellations and deletions decrement once committed. All
+ * loaded days are dropped periodically and reload from the database, which
+ * heals drift from changes made outside this service. A day with a
+ * reservation whose transaction is still open is never dropped: a reload
+ * would not see the uncommitted booking, and the rollback would then give
+ * back a place the reloaded counts never had.
+ */
+@Component
+public class CapacityTracker {
+
+    private final AppointmentRepository appointmentRepository;
+    // Same key layout as OccupancyStore: doctor id in the upper bits, epoch day in the lower 21
+    private final ConcurrentHashMap<Long, DayCounts> days = new ConcurrentHashMap<>();
+
+    public CapacityTracker(AppointmentRepository appointmentRepository) {
+        this.appointmentRepository = appointmentRepository;
+    }
+
+    // Whether one more booking starting at the given time would fit, without taking it
+    public boolean hasCapacity(Long doctorId, LocalDateTime start, CapacityLimits limits) {
+        long minute = TimeCodec.toEpochMinute(start);
+        DayCounts counts = get(doctorId, TimeCodec.epochDay(minute));
+        return below(counts.total, limits.getMaxPerDay())
+                && below(counts.slot(TimeCodec.minuteOfDay(minute)), limits.getMaxPerSlot());
+    }
+
+    // Number of active bookings starting exactly at the given time
+    public int bookedAt(Long doctorId, LocalDateTime start) {
+        long minute = TimeCodec.toEpochMinute(start);
+        return get(doctorId, TimeCodec.epochDay(minute)).slot(TimeCodec.minuteOfDay(minute)).get();
+    }
+
+    /**
+     * Takes one place for a booking starting at the given time. Returns false
+     * when the day or the slot is full. Inside a transaction the place is
+     * released again if the transaction rolls back.
+     */
+    public boolean tryReserve(Long doctorId, LocalDateTime start, CapacityLimits limits) {
+        long minute = TimeCodec.toEpochMinute(start);
+        long epochDay = TimeCodec.epochDay(minute);
+        short minuteOfDay = TimeCodec.minuteOfDay(minute);
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        DayCounts counts = inTransaction ? pin(doctorId, epochDay) : get(doctorId, epochDay);
+        if (!incrementBelow(counts.total, limits.getMaxPerDay())) {
+            unpin(counts, inTransaction);
+            return false;
+        }
+        AtomicInteger slot = counts.slot(minuteOfDay);
+        if (!incrementBelow(slot, limits.getMaxPerSlot())) {
+            counts.total.decrementAndGet();
+            unpin(counts, inTransaction);
+            return false;
+        }
+        if (inTransaction) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    // The counts that took the place give it back, even if the day was reloaded meanwhile
+                    if (status != STATUS_COMMITTED) {
+                        decrementToZero(counts.total);
+                        decrementToZero(counts.slot(minuteOfDay));
+                    }
+                    counts.pending.decrementAndGet();
+                }
+            });
+        }
+        return true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.getDoctorId() == null || event.getAppointmentDateTime() == null) {
+            return;
+        }
+        switch (event.getChangeType()) {
+            case CREATED -> { }
+            case DELETED -> {
+                // A cancelled appointment no longer held a place
+                if (event.getStatus() != AppointmentStatus.CANCELLED) {
+                    release(event);
+                }
+            }
+            case STATUS_CHANGED -> {
+                if (event.getStatus() == AppointmentStatus.CANCELLED) {
+                    release(event);
+                }
+            }
+            // Updates carry no previous time, reload the doctor's days
+            case UPDATED -> evict(event.getDoctorId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        evict(event.getDoctorId());
+    }
+
+    public void evict(Long doctorId) {
+        if (doctorId != null) {
+            for (Long key : days.keySet()) {
+                if ((key >>> 21) == doctorId) {
+                    drop(key);
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.capacity.reconcile-ms:300000}")
+    public void reconcile() {
+        for (Long key : days.keySet()) {
+            drop(key);
+        }
+    }
+
+    private void release(AppointmentChangedEvent event) {
+        long minute = TimeCodec.toEpochMinute(event.getAppointmentDateTime());
+        release(event.getDoctorId(), TimeCodec.epochDay(minute), TimeCodec.minuteOfDay(minute));
+    }
+
+    // Only days still loaded are adjusted, others reload the committed state
+    private void release(Long doctorId, long epochDay, short minuteOfDay) {
+        DayCounts counts = days.get(key(doctorId, epochDay));
+        if (counts != null) {
+            decrementToZero(counts.total);
+            decrementToZero(counts.slot(minuteOfDay));
+        }
+    }
+
+    private DayCounts get(Long doctorId, long epochDay) {
+        return days.computeIfAbsent(key(doctorId, epochDay), k -> load(doctorId, epochDay));
+    }
+
+    // Marks a reservation as pending on the day currently in the map, so drop() keeps it
+    private DayCounts pin(Long doctorId, long epochDay) {
+        long key = key(doctorId, epochDay);
+        while (true) {
+            DayCounts counts = get(doctorId, epochDay);
+            counts.pending.incrementAndGet();
+            // A drop between get and increment removed it, take the reloaded day instead
+            if (days.get(key) == counts) {
+                return counts;
+            }
+            counts.pending.decrementAndGet();
+        }
+    }
+
+    private static void unpin(DayCounts counts, boolean pinned) {
+        if (pinned) {
+            counts.pending.decrementAndGet();
+        }
+    }
+
+    // Atomic per key, so a day is only removed while no reservation is pending on it
+    private void drop(Long key) {
+        days.computeIfPresent(key, (k, counts) -> counts.pending.get() > 0 ? counts : null);
+    }
+
+    private DayCounts load(Long doctorId, long epochDay) {
+        DayCounts counts = new DayCounts();
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        for (BookedInterval booking : appointmentRepository.findBookedIntervalsByDoctorIdBetween(
+                doctorId, date.atStartOfDay(), date.plusDays(1).atStartOfDay())) {
+            counts.total.incrementAndGet();
+            counts.slot(TimeCodec.minuteOfDay(booking.getStartMinute())).incrementAndGet();
+        }
+        return counts;
+    }
+
+    private static boolean below(AtomicInteger counter, int limit) {
+        return limit <= 0 || counter.get() < limit;
+    }
+
+    private static boolean incrementBelow(AtomicInteger counter, int limit) {
+        while (true) {
+            int current = counter.get();
+            if (limit > 0 && current >= limit) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static void decrementToZero(AtomicInteger counter) {
+        counter.getAndUpdate(value -> value > 0 ? value - 1 : 0);
+    }
+
+    private static long key(Long doctorId, long epochDay) {
+        return (doctorId << 21) | epochDay;
+    }
+
+    private static final class DayCounts {
+        private final AtomicInteger total = new AtomicInteger();
+        // Reservations whose transaction has not completed yet
+        private final AtomicInteger pending = new AtomicInteger();
+        private final ConcurrentHashMap<Short, AtomicInteger> slots = new ConcurrentHashMap<>();
+
+        private AtomicInteger slot(short minuteOfDay) {
+            return slots.computeIfAbsent(minuteOfDay, m -> new AtomicInteger());
+        }
+    }
+}
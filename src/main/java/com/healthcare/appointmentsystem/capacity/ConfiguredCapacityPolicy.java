@@ -0,0 +1,46 @@
+package com.healthcare.appointmentsystem.capacity;
+
+import com.healthcare.appointmentsystem.model.Doctor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Capacity from application properties. Group sizes and overbooking ratios
+ * can be set per specialization, e.g.
+ * app.capacity.group-sizes={'Physiotherapy': 4} and
+ * app.capacity.overbooking-ratios={'General Practice': 0.1}.
+ * The ratio raises both limits, rounded down, to absorb expected no-shows.
+ */
+@Component
+public class ConfiguredCapacityPolicy implements CapacityPolicy {
+
+    private final int defaultMaxPerSlot;
+    private final int defaultMaxPerDay;
+    private final Map<String, Integer> groupSizes;
+    private final Map<String, Double> overbookingRatios;
+
+    public ConfiguredCapacityPolicy(
+            @Value("${app.capacity.max-per-slot:1}") int defaultMaxPerSlot,
+            @Value("${app.capacity.max-per-day:0}") int defaultMaxPerDay,
+            @Value("#{${app.capacity.group-sizes:{:}}}") Map<String, Integer> groupSizes,
+            @Value("#{${app.capacity.overbooking-ratios:{:}}}") Map<String, Double> overbookingRatios) {
+        this.defaultMaxPerSlot = Math.max(1, defaultMaxPerSlot);
+        this.defaultMaxPerDay = Math.max(0, defaultMaxPerDay);
+        this.groupSizes = Map.copyOf(groupSizes);
+        this.overbookingRatios = Map.copyOf(overbookingRatios);
+    }
+
+    @Override
+    public CapacityLimits limitsFor(Doctor doctor) {
+        String specialization = doctor.getSpecialization() == null ? "" : doctor.getSpecialization();
+        int perSlot = Math.max(1, groupSizes.getOrDefault(specialization, defaultMaxPerSlot));
+        double ratio = Math.max(0.0, overbookingRatios.getOrDefault(specialization, 0.0));
+        return new CapacityLimits(overbook(perSlot, ratio), overbook(defaultMaxPerDay, ratio));
+    }
+
+    private static int overbook(int limit, double ratio) {
+        return (int) Math.floor(limit * (1.0 + ratio));
+    }
+}
@@ -0,0 +1,48 @@
+package com.healthcare.appointmentsystem.config;
+
+import com.healthcare.appointmentsystem.coordination.DistributedLock;
+import com.healthcare.appointmentsystem.coordination.InvalidationBus;
+import com.healthcare.appointmentsystem.coordination.LocalDistributedLock;
+import com.healthcare.appointmentsystem.coordination.LocalInvalidationBus;
+import com.healthcare.appointmentsystem.coordination.PostgresAdvisoryLock;
+import com.healthcare.appointmentsystem.coordination.PostgresInvalidationBus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Coordination between application nodes. app.coordination.provider=local
+ * (default) is for a single node; postgres coordinates several nodes
+ * through the shared database with advisory locks and LISTEN/NOTIFY.
+ */
+@Configuration
+public class CoordinationConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.coordination.provider", havingValue = "local", matchIfMissing = true)
+    public DistributedLock localDistributedLock() {
+        return new LocalDistributedLock();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "app.coordination.provider", havingValue = "local", matchIfMissing = true)
+    public InvalidationBus localInvalidationBus() {
+        return new LocalInvalidationBus();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.coordination.provider", havingValue = "postgres")
+    public DistributedLock postgresAdvisoryLock(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        return new PostgresAdvisoryLock(jdbcTemplate, transactionManager);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "app.coordination.provider", havingValue = "postgres")
+    public InvalidationBus postgresInvalidationBus(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties) {
+        return new PostgresInvalidationBus(jdbcTemplate, dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+}
@@ -28,7 +28,7 @@ public class CorsConfig {
         config.setAllowCredentials(true);
         
         // Expose headers
-        config.setExposedHeaders(Arrays.asList("Authorization"));
+        config.setExposedHeaders(Arrays.asList("Authorization", "ETag", "Idempotent-Replayed", "Retry-After"));
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/api/**", config);
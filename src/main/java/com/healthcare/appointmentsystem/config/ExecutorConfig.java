@@ -0,0 +1,49 @@
+package com.healthcare.appointmentsystem.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    // Bounded pool for per-doctor slot searches; callers run the task themselves when it is saturated
+    @Bean(name = "slotSearchExecutor")
+    public ThreadPoolTaskExecutor slotSearchExecutor(
+            @Value("${app.slot-search.pool-size:8}") int poolSize,
+            @Value("${app.slot-search.queue-capacity:256}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("slot-search-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Runs waitlist backfill after cancellations, off the request thread
+    @Bean(name = "waitlistExecutor")
+    public ThreadPoolTaskExecutor waitlistExecutor(
+            @Value("${app.waitlist.pool-size:2}") int poolSize,
+            @Value("${app.waitlist.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("waitlist-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Dedicated fork-join pool for CPU-bound slot computation, kept off the common pool
+    @Bean(name = "slotComputePool", destroyMethod = "shutdown")
+    public ForkJoinPool slotComputePool(@Value("${app.slot-compute.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+}
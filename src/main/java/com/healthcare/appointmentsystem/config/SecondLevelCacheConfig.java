@@ -0,0 +1,87 @@
+package com.healthcare.appointmentsystem.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.healthcare.appointmentsystem.cache.CacheRegions;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level and query cache on Caffeine through JCache.
+ *
+ * Every region is created up front with a size bound and a time to live,
+ * so a node that misses an invalidation serves stale data for a bounded
+ * time at most. The update timestamps region is the exception: query
+ * results are only valid while the timestamps they are checked against
+ * are still there, so it is neither bounded nor expired.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Value("${app.cache.second-level.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.second-level.statistics:true}")
+    private boolean statistics;
+
+    @Value("${app.cache.second-level.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${app.cache.second-level.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${app.cache.second-level.query-ttl-seconds:120}")
+    private long queryTtlSeconds;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // The provider hands out one manager per URI and class loader; a loader of its own keeps
+        // application contexts started side by side in one JVM (one per simulated node) from sharing regions
+        ClassLoader managerClassLoader = new ClassLoader(getClass().getClassLoader()) { };
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), managerClassLoader);
+        for (String region : CacheRegions.ENTITY_REGIONS) {
+            createRegion(cacheManager, region, OptionalLong.of(maxEntries), OptionalLong.of(ttlSeconds));
+        }
+        for (String region : CacheRegions.QUERY_REGIONS) {
+            createRegion(cacheManager, region, OptionalLong.of(maxEntries), OptionalLong.of(queryTtlSeconds));
+        }
+        createRegion(cacheManager, CacheRegions.UPDATE_TIMESTAMPS, OptionalLong.empty(), OptionalLong.empty());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, enabled);
+            properties.put(AvailableSettings.GENERATE_STATISTICS, statistics);
+            if (enabled) {
+                properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+                properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            }
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, OptionalLong maxSize, OptionalLong ttlSeconds) {
+        if (cacheManager.getCache(name) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maxSize);
+        if (ttlSeconds.isPresent()) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds.getAsLong())));
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
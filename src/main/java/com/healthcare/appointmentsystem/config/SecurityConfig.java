@@ -1,5 +1,6 @@
 package com.healthcare.appointmentsystem.config;
 
+import com.healthcare.appointmentsystem.ratelimit.RateLimitFilter;
 import com.healthcare.appointmentsystem.security.JwtAuthenticationEntryPoint;
 import com.healthcare.appointmentsystem.security.JwtAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +27,9 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter; // Inject instead of creating
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
     @Bean
     public PasswordEncoder passwordEncoder() { 
         return new BCryptPasswordEncoder(); 
@@ -49,6 +53,8 @@ public class SecurityConfig {
         
         // Use the injected filter instead of creating a new one
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        // After the JWT filter so limits can be keyed by the authenticated user
+        http.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
         return http.build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.healthcare.appointmentsystem.controller;
+
+import com.healthcare.appointmentsystem.archive.AppointmentArchiver;
+import com.healthcare.appointmentsystem.archive.AppointmentPartitionManager;
+import com.healthcare.appointmentsystem.cache.SecondLevelCacheMetrics;
+import com.healthcare.appointmentsystem.datasource.ReplicaLagMonitor;
+import com.healthcare.appointmentsystem.outbox.OutboxRelay;
+import com.healthcare.appointmentsystem.ratelimit.RateLimiter;
+import com.healthcare.appointmentsystem.search.DoctorSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/metrics")
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+public class AdminMetricsController {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    // Only present when a read replica is configured
+    @Autowired(required = false)
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private AppointmentArchiver appointmentArchiver;
+
+    @Autowired
+    private AppointmentPartitionManager partitionManager;
+
+    @Autowired
+    private SecondLevelCacheMetrics secondLevelCacheMetrics;
+
+    @Autowired
+    private DoctorSearchIndex doctorSearchIndex;
+
+    // Outbox relay throughput and lag
+    @GetMapping("/outbox")
+    public ResponseEntity<Map<String, Object>> getOutboxMetrics() {
+        return ResponseEntity.ok(outboxRelay.getMetrics());
+    }
+
+    // Allowed and rejected requests per rate limit policy
+    @GetMapping("/rate-limit")
+    public ResponseEntity<Map<String, Object>> getRateLimitMetrics() {
+        return ResponseEntity.ok(rateLimiter.getMetrics());
+    }
+
+    // Replica lag and how many reads it served
+    @GetMapping("/datasource")
+    public ResponseEntity<Map<String, Object>> getDataSourceMetrics() {
+        if (replicaLagMonitor == null) {
+            return ResponseEntity.ok(Map.of("replicaConfigured", false));
+        }
+        return ResponseEntity.ok(replicaLagMonitor.getMetrics());
+    }
+
+    // Archiver progress and the partitions of the live table
+    @GetMapping("/archive")
+    public ResponseEntity<Map<String, Object>> getArchiveMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>(appointmentArchiver.getMetrics());
+        metrics.putAll(partitionManager.getMetrics());
+        return ResponseEntity.ok(metrics);
+    }
+
+    // Second-level and query cache hits and misses per region
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getCacheMetrics() {
+        return ResponseEntity.ok(secondLevelCacheMetrics.getMetrics());
+    }
+
+    // Size of the doctor search index and when it was last rebuilt
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> getSearchMetrics() {
+        return ResponseEntity.ok(doctorSearchIndex.getMetrics());
+    }
+}
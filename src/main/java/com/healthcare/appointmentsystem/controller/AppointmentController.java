@@ -3,11 +3,18 @@ package com.healthcare.appointmentsystem.controller;
 import com.healthcare.appointmentsystem.dto.AppointmentRequestDTO;
 import com.healthcare.appointmentsystem.dto.AppointmentResponseDTO;
 import com.healthcare.appointmentsystem.dto.DoctorDTO;
+import com.healthcare.appointmentsystem.exception.PreconditionFailedException;
+import com.healthcare.appointmentsystem.idempotency.IdempotencyService;
 import com.healthcare.appointmentsystem.mapper.AppointmentMapper;
 import com.healthcare.appointmentsystem.model.Appointment;
+import com.healthcare.appointmentsystem.model.Role;
+import com.healthcare.appointmentsystem.security.UserPrincipal;
 import com.healthcare.appointmentsystem.service.AppointmentService;
+import com.healthcare.appointmentsystem.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -23,17 +30,29 @@ import java.util.stream.Collectors;
 public class AppointmentController {
     private final AppointmentService appointmentService;
     private final AppointmentMapper appointmentMapper;
+    private final IdempotencyService idempotencyService;
 
     @Autowired
-    public AppointmentController(AppointmentService appointmentService, AppointmentMapper appointmentMapper) {
+    public AppointmentController(AppointmentService appointmentService, AppointmentMapper appointmentMapper,
+                                 IdempotencyService idempotencyService) {
         this.appointmentService = appointmentService;
         this.appointmentMapper = appointmentMapper;
+        this.idempotencyService = idempotencyService;
     }
-    // Create appointment
+    // Create appointment, retries carrying the same Idempotency-Key book only once
     @PostMapping
-    public ResponseEntity<AppointmentResponseDTO> createAppointment(@RequestBody AppointmentRequestDTO requestDTO){
+    public ResponseEntity<AppointmentResponseDTO> createAppointment(@RequestBody AppointmentRequestDTO requestDTO,
+                                                                    @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey){
+        if (idempotencyKey == null) {
+            return doCreateAppointment(requestDTO);
+        }
+        return idempotencyService.execute("POST /api/appointments", idempotencyKey, requestDTO,
+                AppointmentResponseDTO.class, () -> doCreateAppointment(requestDTO));
+    }
+
+    private ResponseEntity<AppointmentResponseDTO> doCreateAppointment(AppointmentRequestDTO requestDTO) {
         var savedAppointment = appointmentMapper.toEntity(requestDTO);
-        var appointment = appointmentService.createAppointment(savedAppointment);
+        var appointment = appointmentService.createAppointment(savedAppointment, requestDTO.getDurationMinutes(), requestDTO.getSlotCount());
         var responseDTO = appointmentMapper.toResponseDTO(appointment);
         return ResponseEntity.ok(responseDTO);
     }
@@ -43,20 +62,23 @@ public class AppointmentController {
         var appointment = appointmentService.findAppointmentById(id);
         if(appointment != null){
             var responseDTO = appointmentMapper.toResponseDTO(appointment);
-            return ResponseEntity.ok(responseDTO);
+            return ResponseEntity.ok().eTag(ETags.of(appointment.getVersion())).body(responseDTO);
         }
         return ResponseEntity.notFound().build();
     }
     // Update Appointment by ID
     @PreAuthorize("hasRole('ROLE_DOCTOR') or hasRole('ROLE_ADMIN')")
     @PutMapping("/{id}")
-    public ResponseEntity<AppointmentResponseDTO> updateAppointment(@PathVariable Long id, @RequestBody AppointmentRequestDTO requestDTO){
+    public ResponseEntity<AppointmentResponseDTO> updateAppointment(@PathVariable Long id, @RequestBody AppointmentRequestDTO requestDTO,
+                                                                    @RequestHeader(value = "If-Match", required = false) String ifMatch){
         var appointmentToUpdate = appointmentService.findAppointmentById(id);
         if(appointmentToUpdate != null){
+            checkIfMatch(ifMatch, appointmentToUpdate);
             appointmentMapper.updateEntityFromDTO(requestDTO, appointmentToUpdate);
-            var appointment = appointmentService.updateAppointment(appointmentToUpdate);
+            var appointment = appointmentService.updateAppointment(appointmentToUpdate,
+                    requestDTO.getAppointmentDateTime(), requestDTO.getDurationMinutes());
             var responseDTO = appointmentMapper.toResponseDTO(appointment);
-            return ResponseEntity.ok(responseDTO);
+            return ResponseEntity.ok().eTag(ETags.of(appointment.getVersion())).body(responseDTO);
         }
         return ResponseEntity.notFound().build();
     }
@@ -76,8 +98,10 @@ public class AppointmentController {
     }
     @PreAuthorize("hasRole('ROLE_DOCTOR') or hasRole('ROLE_ADMIN')")
     @GetMapping("/doctor/{doctorId}")
-    public ResponseEntity<List<AppointmentResponseDTO>> getAppointmentsByDoctorId(@PathVariable Long doctorId) {
-        var appointmentsByDoctor = appointmentService.findAppointmentByDoctorId(doctorId);
+    public ResponseEntity<List<AppointmentResponseDTO>> getAppointmentsByDoctorId(@PathVariable Long doctorId,
+                                                                                  @RequestParam(defaultValue = "false") boolean includeArchived) {
+        // The archive is only read when history is asked for
+        var appointmentsByDoctor = appointmentService.findAppointmentByDoctorId(doctorId, includeArchived);
         if(appointmentsByDoctor.isEmpty()){
             return ResponseEntity.noContent().build();
         }
@@ -88,15 +112,35 @@ public class AppointmentController {
     }
     @PreAuthorize("hasRole('ROLE_PATIENT') or hasRole('ROLE_ADMIN')")
     @GetMapping("/patient/{userId}")
-    public ResponseEntity<List<AppointmentResponseDTO>> getAppointmentsByPatientId(@PathVariable Long userId){
-        var appointmentsByPatient = appointmentService.findAppointmentByUserId(userId);
+    public ResponseEntity<List<AppointmentResponseDTO>> getAppointmentsByPatientId(@PathVariable Long userId,
+                                                                                   @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch,
+                                                                                   @RequestParam(defaultValue = "false") boolean includeArchived){
+        // {userId} is a users.id; patients only see their own, checked against the token without a lookup.
+        // Tokens without identity claims cannot be checked and have to be renewed.
+        UserPrincipal principal = UserPrincipal.current();
+        if (principal == null) {
+            throw new AccessDeniedException("Please sign in again to view appointments");
+        }
+        if (principal.getRole() == Role.ROLE_PATIENT && !principal.getUserId().equals(userId)) {
+            throw new AccessDeniedException("Patients can only view their own appointments");
+        }
+        // Cheap aggregate query first so polling clients get a 304 without loading anything
+        // Archiving changes the live stamp and archived rows never change, so only the variant differs
+        String etag = ETags.of(List.of(appointmentService.getVersionStampByUserId(userId)));
+        if (includeArchived) {
+            etag = ETags.withVariant(etag, "archived");
+        }
+        if(ETags.isNotModified(ifNoneMatch, etag)){
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        var appointmentsByPatient = appointmentService.findAppointmentByUserId(userId, includeArchived);
         if(appointmentsByPatient.isEmpty()){
-            return ResponseEntity.ok(Collections.emptyList());
+            return ResponseEntity.ok().eTag(etag).body(Collections.emptyList());
         }
         var responseDTOs = appointmentsByPatient.stream()
             .map(appointmentMapper::toResponseDTO)
             .collect(Collectors.toList());
-        return ResponseEntity.ok(responseDTOs);
+        return ResponseEntity.ok().eTag(etag).body(responseDTOs);
     }
     @GetMapping("/date/{date}")
     public ResponseEntity<List<AppointmentResponseDTO>> getAppointmentsByDate(@PathVariable LocalDateTime date){
@@ -132,13 +176,15 @@ public class AppointmentController {
     }
 
     @PatchMapping("/{id}/status")
-    public ResponseEntity<AppointmentResponseDTO> updateAppointmentStatusById(@PathVariable Long id, @RequestBody AppointmentRequestDTO requestDTO){
+    public ResponseEntity<AppointmentResponseDTO> updateAppointmentStatusById(@PathVariable Long id, @RequestBody AppointmentRequestDTO requestDTO,
+                                                                              @RequestHeader(value = "If-Match", required = false) String ifMatch){
         var appointmentToUpdate = appointmentService.findAppointmentById(id);
         if(appointmentToUpdate != null){
+            checkIfMatch(ifMatch, appointmentToUpdate);
             appointmentMapper.updateEntityFromDTO(requestDTO, appointmentToUpdate);
             var appointment = appointmentService.updateAppointmentStatus(id, appointmentToUpdate.getStatus());
             var responseDTO = appointmentMapper.toResponseDTO(appointment);
-            return ResponseEntity.ok(responseDTO);
+            return ResponseEntity.ok().eTag(ETags.of(appointment.getVersion())).body(responseDTO);
         }else{
             return ResponseEntity.notFound().build();
         }
@@ -172,4 +218,11 @@ public class AppointmentController {
             return ResponseEntity.ok(responseDTOs);
         }
     }
+
+    // Reject the write when the client's If-Match no longer matches the stored version
+    private void checkIfMatch(String ifMatch, Appointment appointment) {
+        if (!ETags.matches(ifMatch, appointment.getVersion())) {
+            throw new PreconditionFailedException("Appointment has been modified since it was last read");
+        }
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.healthcare.appointmentsystem.controller;
 
 import com.healthcare.appointmentsystem.dto.AuthenticationResponseDTO;
 import com.healthcare.appointmentsystem.dto.LoginRequestDTO;
+import com.healthcare.appointmentsystem.dto.RefreshTokenRequestDTO;
 import com.healthcare.appointmentsystem.dto.RegistrationRequestDTO;
 import com.healthcare.appointmentsystem.exception.BadRequestException;
 import com.healthcare.appointmentsystem.model.Gender;
@@ -10,23 +11,31 @@ import com.healthcare.appointmentsystem.model.Role;
 import com.healthcare.appointmentsystem.model.User;
 import com.healthcare.appointmentsystem.repository.PatientRepository;
 import com.healthcare.appointmentsystem.repository.UserRepository;
-import com.healthcare.appointmentsystem.security.JwtTokenProvider;
+import com.healthcare.appointmentsystem.security.JwtKeyRing;
+import com.healthcare.appointmentsystem.security.LoginAttemptTracker;
+import com.healthcare.appointmentsystem.service.AuthTokenService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.Map;
 
 import static org.springframework.http.ResponseEntity.ok;
 
@@ -37,9 +46,6 @@ public class AuthController {
     @Autowired
     private AuthenticationManager authenticationManager;
 
-    @Autowired
-    private JwtTokenProvider jwtTokenProvider;
-
     @Autowired
     private UserRepository userRepository;
 
@@ -47,42 +53,58 @@ public class AuthController {
     private PasswordEncoder passwordEncoder;
     @Autowired
     private PatientRepository patientRepository;
+    @Autowired
+    private LoginAttemptTracker loginAttemptTracker;
+    @Autowired
+    private AuthTokenService authTokenService;
+    @Autowired
+    private JwtKeyRing jwtKeyRing;
 
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Validated @RequestBody LoginRequestDTO loginRequest){
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())
-
-        );
+    public ResponseEntity<?> authenticateUser(@Validated @RequestBody LoginRequestDTO loginRequest, HttpServletRequest request){
+        // Refuse before the password check so blocked attempts cost no BCrypt round
+        loginAttemptTracker.checkAllowed(loginRequest.getUsername(), request.getRemoteAddr());
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+        } catch (BadCredentialsException ex) {
+            loginAttemptTracker.recordFailure(loginRequest.getUsername(), request.getRemoteAddr());
+            throw ex;
+        }
+        loginAttemptTracker.recordSuccess(loginRequest.getUsername());
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtTokenProvider.generateToken(authentication);
         User user = userRepository.findByUsername(loginRequest.getUsername()).orElseThrow(()-> new BadRequestException("User not found"));
 
         user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
-        String firstName = null;
-        String lastName = null;
-        if (user.getUserRole() == Role.ROLE_PATIENT) {
-            Optional<Patient> patientOpt = patientRepository.findByUserId(user.getId());
-            if (patientOpt.isPresent()) {
-                Patient patient = patientOpt.get();
-                firstName = patient.getFirstName();
-                lastName = patient.getLastName();
-            }
+        if (user.isLockExpired()) {
+            user.setAccountNonLocked(true);
+            user.setLockedUntil(null);
         }
+        userRepository.save(user);
 
+        return ResponseEntity.ok(authTokenService.issueTokens(user));
 
-        return ResponseEntity.ok(AuthenticationResponseDTO.builder()
-                .token(jwt)
-                .tokenType("Bearer")
-                .userId(user.getId())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .firstName(firstName)
-                .lastName(lastName)
-                .role(user.getUserRole().name())
-                .build());
-
+    }
+    // Exchange a refresh token for a new token pair, the old refresh token becomes invalid
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthenticationResponseDTO> refreshToken(@RequestBody RefreshTokenRequestDTO refreshRequest){
+        return ResponseEntity.ok(authTokenService.refresh(refreshRequest.getRefreshToken()));
+    }
+    // Revoke the refresh token and the current access token, or every session of the user with all=true
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody(required = false) RefreshTokenRequestDTO logoutRequest,
+                                    @RequestParam(defaultValue = "false") boolean all,
+                                    HttpServletRequest request){
+        String bearerToken = request.getHeader("Authorization");
+        String accessToken = bearerToken != null && bearerToken.startsWith("Bearer ") ? bearerToken.substring(7) : null;
+        authTokenService.logout(logoutRequest != null ? logoutRequest.getRefreshToken() : null, accessToken, all);
+        return ResponseEntity.ok("Logged out successfully");
+    }
+    // Public verification keys, for other nodes and resource servers checking our tokens
+    @GetMapping("/jwks")
+    public ResponseEntity<Map<String, Object>> getJwks(){
+        return ResponseEntity.ok().cacheControl(CacheControl.maxAge(Duration.ofMinutes(5))).body(jwtKeyRing.toJwks());
     }
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@Validated @RequestBody RegistrationRequestDTO registerRequest){
@@ -0,0 +1,53 @@
+package com.healthcare.appointmentsystem.controller;
+
+import com.healthcare.appointmentsystem.model.Role;
+import com.healthcare.appointmentsystem.security.UserPrincipal;
+import com.healthcare.appointmentsystem.service.ChangeFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/feed")
+public class ChangeFeedController {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    // Push appointment and availability changes for a doctor, replaces slot polling
+    @PreAuthorize("hasRole('ROLE_DOCTOR') or hasRole('ROLE_ADMIN') or hasRole('ROLE_PATIENT')")
+    @GetMapping(value = "/doctor/{doctorId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToDoctor(@PathVariable Long doctorId) {
+        UserPrincipal principal = requirePrincipal();
+        // Everyone may watch a doctor's slots, only the doctor and admins see whose bookings they are
+        boolean includePatientIds = principal.getRole() == Role.ROLE_ADMIN
+                || (principal.getRole() == Role.ROLE_DOCTOR && doctorId.equals(principal.getDoctorId()));
+        return changeFeedService.subscribeToDoctor(doctorId, includePatientIds);
+    }
+
+    // Push appointment changes for a patient, replaces appointment list polling
+    @PreAuthorize("hasRole('ROLE_PATIENT') or hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/patient/{patientId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToPatient(@PathVariable Long patientId) {
+        UserPrincipal principal = requirePrincipal();
+        if (principal.getRole() == Role.ROLE_PATIENT && !patientId.equals(principal.getPatientId())) {
+            throw new AccessDeniedException("Patients can only subscribe to their own appointments");
+        }
+        return changeFeedService.subscribeToPatient(patientId);
+    }
+
+    // Ownership is checked against the token's claims, tokens without them have to be renewed
+    private static UserPrincipal requirePrincipal() {
+        UserPrincipal principal = UserPrincipal.current();
+        if (principal == null) {
+            throw new AccessDeniedException("Please sign in again to subscribe");
+        }
+        return principal;
+    }
+}
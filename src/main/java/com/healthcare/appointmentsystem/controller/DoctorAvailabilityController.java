@@ -2,10 +2,13 @@ package com.healthcare.appointmentsystem.controller;
 
 import com.healthcare.appointmentsystem.dto.AvailabilityRequestDTO;
 import com.healthcare.appointmentsystem.dto.AvailabilityResponseDTO;
+import com.healthcare.appointmentsystem.dto.TimeSlotDTO;
+import com.healthcare.appointmentsystem.exception.PreconditionFailedException;
 import com.healthcare.appointmentsystem.mapper.AvailabilityMapper;
 import com.healthcare.appointmentsystem.model.Doctor;
 import com.healthcare.appointmentsystem.repository.DoctorRepository;
 import com.healthcare.appointmentsystem.service.DoctorAvailabilityService;
+import com.healthcare.appointmentsystem.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
@@ -14,6 +17,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
@@ -41,13 +45,17 @@ public class DoctorAvailabilityController {
     }
     @PreAuthorize("hasRole('ROLE_DOCTOR') or hasRole('ROLE_ADMIN')")
     @PutMapping("/{id}")
-    public ResponseEntity<AvailabilityResponseDTO> updateAvailability(@PathVariable Long id, @RequestBody AvailabilityRequestDTO requestDTO){
+    public ResponseEntity<AvailabilityResponseDTO> updateAvailability(@PathVariable Long id, @RequestBody AvailabilityRequestDTO requestDTO,
+                                                                      @RequestHeader(value = "If-Match", required = false) String ifMatch){
         var existingAvailability = availabilityService.findDoctorAvailabilityById(id);
+        if(!ETags.matches(ifMatch, existingAvailability.getVersion())){
+            throw new PreconditionFailedException("Availability has been modified since it was last read");
+        }
         availabilityMapper.updateEntityFromDTO(requestDTO, existingAvailability);
 
         var updatedAvailability = availabilityService.updateDoctorAvailability(existingAvailability);
         var responseDTO = availabilityMapper.toResponseDTO(updatedAvailability);
-        return ResponseEntity.ok(responseDTO);
+        return ResponseEntity.ok().eTag(ETags.of(updatedAvailability.getVersion())).body(responseDTO);
     }
     @PreAuthorize("hasRole('ROLE_DOCTOR') or hasRole('ROLE_ADMIN')")
     @DeleteMapping("/{id}")
@@ -61,7 +69,7 @@ public class DoctorAvailabilityController {
         var availability = availabilityService.findDoctorAvailabilityById(id);
         if(availability != null){
             var responseDTO = availabilityMapper.toResponseDTO(availability);
-            return ResponseEntity.ok(responseDTO);
+            return ResponseEntity.ok().eTag(ETags.of(availability.getVersion())).body(responseDTO);
         }
         return ResponseEntity.notFound().build();
     }
@@ -88,13 +96,33 @@ public class DoctorAvailabilityController {
         return ResponseEntity.ok((AvailabilityResponseDTO) responseDTOs);
     }
 
-    @GetMapping("/doctor/{doctorId}/slots")
-    public ResponseEntity<AvailabilityResponseDTO> getAvailableTimeSlots(@PathVariable Long doctorId, @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date){
-        var slots = availabilityService.getAvailableTimeSlots(doctorId, date);
+    // Free slots of every doctor for a day, for admin and front-desk screens
+    @PreAuthorize("hasRole('ROLE_DOCTOR') or hasRole('ROLE_ADMIN')")
+    @GetMapping("/slots")
+    public ResponseEntity<List<TimeSlotDTO>> getClinicTimeSlots(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date){
+        var slots = availabilityService.getClinicTimeSlots(date);
         if(slots.isEmpty()){
             return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.ok((AvailabilityResponseDTO) slots);
+        return ResponseEntity.ok(slots);
+    }
+
+    @GetMapping("/doctor/{doctorId}/slots")
+    public ResponseEntity<List<TimeSlotDTO>> getAvailableTimeSlots(@PathVariable Long doctorId, @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                                   @RequestParam(required = false) Integer duration,
+                                                                   @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch){
+        // Slots only change with availabilities, that day's appointments or holds, so poll with a cheap
+        // fingerprint; the requested length gives a different list and so a different tag
+        String etag = ETags.withVariant(ETags.of(availabilityService.getTimeSlotVersionStamps(doctorId, date)),
+                "h" + availabilityService.getHoldGeneration(doctorId) + (duration != null ? "-d" + duration : ""));
+        if(ETags.isNotModified(ifNoneMatch, etag)){
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        var slots = availabilityService.getAvailableTimeSlots(doctorId, date, duration);
+        if(slots.isEmpty()){
+            return ResponseEntity.noContent().eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(slots);
 
     }
 
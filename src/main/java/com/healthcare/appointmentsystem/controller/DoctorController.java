@@ -1,12 +1,19 @@
 package com.healthcare.appointmentsystem.controller;
 
+import com.healthcare.appointmentsystem.dto.DoctorSearchResultDTO;
+import com.healthcare.appointmentsystem.dto.TimeSlotDTO;
 import com.healthcare.appointmentsystem.model.Doctor;
+import com.healthcare.appointmentsystem.service.DoctorAvailabilityService;
 import com.healthcare.appointmentsystem.service.DoctorService;
+import com.healthcare.appointmentsystem.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.Serializable;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -17,9 +24,18 @@ public class DoctorController {
     
     @Autowired
     private DoctorService doctorService;
+
+    @Autowired
+    private DoctorAvailabilityService availabilityService;
     
     @GetMapping
-    public ResponseEntity<List<Map<String, ? extends Serializable>>> getAllDoctors() {
+    public ResponseEntity<List<Map<String, ? extends Serializable>>> getAllDoctors(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        // Answer polling clients from an aggregate query before loading the directory
+        String etag = ETags.of(List.of(doctorService.getDirectoryVersionStamp()));
+        if (ETags.isNotModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         List<Doctor> doctors = doctorService.getAllDoctors();
         
         // Convert to the format your frontend expects
@@ -34,9 +50,26 @@ public class DoctorController {
                 ))
                 .collect(Collectors.toList());
         
-        return ResponseEntity.ok(doctorList);
+        return ResponseEntity.ok().eTag(etag).body(doctorList);
     }
     
+    // Typeahead over names, specialization, qualification and office location, tolerant of typos
+    @GetMapping("/search")
+    public ResponseEntity<List<DoctorSearchResultDTO>> searchDoctors(@RequestParam("q") String query,
+                                                                     @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(doctorService.searchDoctors(query, limit));
+    }
+
+    // First free slots of any doctor with the specialization, e.g. the first free cardiologist
+    @GetMapping("/next-available")
+    public ResponseEntity<List<TimeSlotDTO>> getNextAvailableSlots(
+            @RequestParam String specialization,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "14") int days,
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(availabilityService.findNextAvailableSlots(specialization, from, days, limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Map<String, Object>> getDoctorById(@PathVariable Long id) {
         Doctor doctor = doctorService.getDoctorById(id)
@@ -0,0 +1,36 @@
+package com.healthcare.appointmentsystem.controller;
+
+import com.healthcare.appointmentsystem.dto.SlotHoldDTO;
+import com.healthcare.appointmentsystem.dto.SlotHoldRequestDTO;
+import com.healthcare.appointmentsystem.service.SlotHoldService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+// Short-lived slot holds taken while a patient fills in the booking form
+@RestController
+@RequestMapping("/api/appointments/holds")
+@PreAuthorize("hasRole('ROLE_PATIENT') or hasRole('ROLE_ADMIN')")
+public class SlotHoldController {
+
+    @Autowired
+    private SlotHoldService slotHoldService;
+
+    @PostMapping
+    public ResponseEntity<SlotHoldDTO> placeHold(@RequestBody SlotHoldRequestDTO requestDTO) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(slotHoldService.placeHold(requestDTO));
+    }
+
+    @GetMapping("/{holdId}")
+    public ResponseEntity<SlotHoldDTO> getHold(@PathVariable String holdId) {
+        return ResponseEntity.ok(slotHoldService.findHoldById(holdId));
+    }
+
+    @DeleteMapping("/{holdId}")
+    public ResponseEntity<Void> releaseHold(@PathVariable String holdId) {
+        slotHoldService.releaseHold(holdId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.healthcare.appointmentsystem.controller;
+
+import com.healthcare.appointmentsystem.dto.WaitlistRequestDTO;
+import com.healthcare.appointmentsystem.dto.WaitlistResponseDTO;
+import com.healthcare.appointmentsystem.mapper.WaitlistMapper;
+import com.healthcare.appointmentsystem.service.WaitlistService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/waitlist")
+@PreAuthorize("hasRole('ROLE_PATIENT') or hasRole('ROLE_ADMIN')")
+public class WaitlistController {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private WaitlistMapper waitlistMapper;
+
+    @PostMapping
+    public ResponseEntity<WaitlistResponseDTO> joinWaitlist(@RequestBody WaitlistRequestDTO requestDTO) {
+        var entry = waitlistService.joinWaitlist(requestDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).body(waitlistMapper.toResponseDTO(entry));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<WaitlistResponseDTO> getWaitlistEntry(@PathVariable Long id) {
+        return ResponseEntity.ok(waitlistMapper.toResponseDTO(waitlistService.findWaitlistEntryById(id)));
+    }
+
+    @GetMapping("/patient/{patientId}")
+    public ResponseEntity<List<WaitlistResponseDTO>> getWaitlistByPatient(@PathVariable Long patientId) {
+        var entries = waitlistService.findWaitlistEntriesByPatientId(patientId);
+        if (entries.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(entries.stream()
+                .map(waitlistMapper::toResponseDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @PostMapping("/{id}/accept")
+    public ResponseEntity<WaitlistResponseDTO> acceptOffer(@PathVariable Long id) {
+        return ResponseEntity.ok(waitlistMapper.toResponseDTO(waitlistService.acceptOffer(id)));
+    }
+
+    @PostMapping("/{id}/decline")
+    public ResponseEntity<WaitlistResponseDTO> declineOffer(@PathVariable Long id) {
+        return ResponseEntity.ok(waitlistMapper.toResponseDTO(waitlistService.declineOffer(id)));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> leaveWaitlist(@PathVariable Long id) {
+        waitlistService.leaveWaitlist(id);
+        return ResponseEntity.noContent().build();
+    }
+}
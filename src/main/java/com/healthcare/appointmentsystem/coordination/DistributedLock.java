@@ -0,0 +1,23 @@
+package com.healthcare.appointmentsystem.coordination;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Named mutual exclusion across every node of the application.
+ *
+ * Inside a transaction the lock is held until the transaction completes,
+ * so whatever the action wrote is committed before the next holder reads
+ * it. Without a transaction it is held for the duration of the action.
+ */
+public interface DistributedLock {
+
+    /**
+     * Runs the action while holding the named lock. Throws ConflictException
+     * when the lock cannot be acquired within waitTime.
+     */
+    <T> T executeWithLock(String name, Duration waitTime, Supplier<T> action);
+
+    // True when the lock only coordinates threads of this JVM, so local caches are authoritative
+    boolean isLocalOnly();
+}
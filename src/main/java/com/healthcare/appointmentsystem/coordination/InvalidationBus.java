@@ -0,0 +1,15 @@
+package com.healthcare.appointmentsystem.coordination;
+
+import java.util.function.Consumer;
+
+/**
+ * Fire-and-forget messages to the other nodes, used to tell them which
+ * cached entries are stale. A node never receives its own messages, and
+ * delivery is best effort: caches fed by it must also expire on their own.
+ */
+public interface InvalidationBus {
+
+    void publish(String topic, String message);
+
+    void subscribe(String topic, Consumer<String> listener);
+}
@@ -0,0 +1,52 @@
+package com.healthcare.appointmentsystem.coordination;
+
+import com.healthcare.appointmentsystem.exception.ConflictException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Lock for a single node. The lock table is static, so several application
+ * contexts started in one JVM (one per simulated node) share it.
+ */
+public class LocalDistributedLock implements DistributedLock {
+
+    private static final ConcurrentHashMap<String, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+    @Override
+    public <T> T executeWithLock(String name, Duration waitTime, Supplier<T> action) {
+        ReentrantLock lock = LOCKS.computeIfAbsent(name, k -> new ReentrantLock());
+        try {
+            if (!lock.tryLock(waitTime.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ConflictException("Another request is working on the same resource, please retry");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting for lock " + name);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+            return action.get();
+        }
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isLocalOnly() {
+        return true;
+    }
+}
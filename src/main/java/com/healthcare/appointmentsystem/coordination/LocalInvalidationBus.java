@@ -0,0 +1,44 @@
+package com.healthcare.appointmentsystem.coordination;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers messages to the other buses in the same JVM. A single deployed
+ * node has no other bus, so publishing is free; several application
+ * contexts in one JVM each get their own bus and see each other's messages.
+ */
+public class LocalInvalidationBus implements InvalidationBus {
+
+    private static final List<LocalInvalidationBus> BUSES = new CopyOnWriteArrayList<>();
+
+    private final ConcurrentHashMap<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+
+    public LocalInvalidationBus() {
+        BUSES.add(this);
+    }
+
+    @Override
+    public void publish(String topic, String message) {
+        for (LocalInvalidationBus bus : BUSES) {
+            if (bus != this) {
+                bus.deliver(topic, message);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(String topic, Consumer<String> listener) {
+        listeners.computeIfAbsent(topic, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void close() {
+        BUSES.remove(this);
+    }
+
+    private void deliver(String topic, String message) {
+        listeners.getOrDefault(topic, List.of()).forEach(listener -> listener.accept(message));
+    }
+}
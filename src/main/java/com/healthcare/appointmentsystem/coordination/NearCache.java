@@ -0,0 +1,67 @@
+package com.healthcare.appointmentsystem.coordination;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Per-node cache kept coherent through the invalidation bus: every node
+ * caches locally, and invalidating a key drops it here and on every other
+ * node. Entries also expire after the TTL, which bounds staleness when an
+ * invalidation message is lost.
+ */
+public class NearCache<K, V> {
+
+    private final String topic;
+    private final long ttlMs;
+    private final InvalidationBus bus;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    public NearCache(String name, long ttlMs, Function<String, K> keyParser, InvalidationBus bus) {
+        this.topic = "cache:" + name;
+        this.ttlMs = ttlMs;
+        this.bus = bus;
+        bus.subscribe(topic, message -> {
+            if (message.isEmpty()) {
+                entries.clear();
+            } else {
+                entries.remove(keyParser.apply(message));
+            }
+        });
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        long now = System.currentTimeMillis();
+        Entry<V> entry = entries.get(key);
+        if (entry == null || now - entry.loadedAtMs > ttlMs) {
+            entry = new Entry<>(loader.apply(key), now);
+            entries.put(key, entry);
+        }
+        return entry.value;
+    }
+
+    // Drops the key on every node
+    public void invalidate(K key) {
+        entries.remove(key);
+        bus.publish(topic, String.valueOf(key));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+        bus.publish(topic, "");
+    }
+
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> now - entry.loadedAtMs > ttlMs);
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long loadedAtMs;
+
+        private Entry(V value, long loadedAtMs) {
+            this.value = value;
+            this.loadedAtMs = loadedAtMs;
+        }
+    }
+}
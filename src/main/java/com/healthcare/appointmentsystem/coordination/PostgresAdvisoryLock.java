@@ -0,0 +1,67 @@
+package com.healthcare.appointmentsystem.coordination;
+
+import com.healthcare.appointmentsystem.exception.ConflictException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Lock backed by PostgreSQL transaction-level advisory locks, so nodes
+ * coordinate through the database they already share. The lock name is
+ * hashed to the 64-bit advisory key; PostgreSQL releases it on commit or
+ * rollback, also when a node dies mid-transaction. Waiting is bounded with
+ * lock_timeout for the current transaction.
+ */
+public class PostgresAdvisoryLock implements DistributedLock {
+
+    private static final String LOCK_NOT_AVAILABLE = "55P03";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public PostgresAdvisoryLock(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public <T> T executeWithLock(String name, Duration waitTime, Supplier<T> action) {
+        // Advisory transaction locks need a transaction to belong to
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transactionTemplate.execute(status -> executeWithLock(name, waitTime, action));
+        }
+        try {
+            jdbcTemplate.execute("SET LOCAL lock_timeout = '" + Math.max(1, waitTime.toMillis()) + "ms'");
+            jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + key(name) + ")");
+        } catch (DataAccessException ex) {
+            if (ex.getMostSpecificCause() instanceof SQLException sql
+                    && LOCK_NOT_AVAILABLE.equals(sql.getSQLState())) {
+                throw new ConflictException("Another request is working on the same resource, please retry");
+            }
+            throw ex;
+        }
+        return action.get();
+    }
+
+    @Override
+    public boolean isLocalOnly() {
+        return false;
+    }
+
+    // 64-bit FNV-1a of the name
+    static long key(String name) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,114 @@
+package com.healthcare.appointmentsystem.coordination;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Invalidation messages over PostgreSQL LISTEN/NOTIFY. Publishing inside a
+ * transaction is delivered when it commits. One background thread per node
+ * holds a dedicated connection (outside the pool) listening on the channel
+ * and reconnects when it drops; messages sent while it is disconnected are
+ * lost, which the TTL of the caches has to cover.
+ */
+public class PostgresInvalidationBus implements InvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresInvalidationBus.class);
+    private static final String CHANNEL = "app_invalidation";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentHashMap<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+    private final Thread listenerThread;
+    private volatile boolean running = true;
+
+    public PostgresInvalidationBus(JdbcTemplate jdbcTemplate, String url, String username, String password) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.listenerThread = new Thread(this::listen, "invalidation-listener");
+        this.listenerThread.setDaemon(true);
+        this.listenerThread.start();
+    }
+
+    // Payload is "<node>|<topic>|<message>", NOTIFY payloads are limited to 8000 bytes
+    @Override
+    public void publish(String topic, String message) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, nodeId + "|" + topic + "|" + message);
+    }
+
+    @Override
+    public void subscribe(String topic, Consumer<String> listener) {
+        listeners.computeIfAbsent(topic, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void close() {
+        running = false;
+        listenerThread.interrupt();
+    }
+
+    private void listen() {
+        long backoffMs = 1000;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                backoffMs = 1000;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Invalidation listener lost its connection, retrying in {} ms", backoffMs, ex);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, 30_000);
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        int first = payload.indexOf('|');
+        int second = payload.indexOf('|', first + 1);
+        if (first < 0 || second < 0 || payload.substring(0, first).equals(nodeId)) {
+            return;
+        }
+        String topic = payload.substring(first + 1, second);
+        String message = payload.substring(second + 1);
+        for (Consumer<String> listener : listeners.getOrDefault(topic, List.of())) {
+            try {
+                listener.accept(message);
+            } catch (RuntimeException ex) {
+                logger.warn("Invalidation listener for {} failed", topic, ex);
+            }
+        }
+    }
+}
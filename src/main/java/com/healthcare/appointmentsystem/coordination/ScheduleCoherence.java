@@ -0,0 +1,54 @@
+package com.healthcare.appointmentsystem.coordination;
+
+import com.healthcare.appointmentsystem.capacity.CapacityTracker;
+import com.healthcare.appointmentsystem.event.AppointmentChangedEvent;
+import com.healthcare.appointmentsystem.event.AvailabilityChangedEvent;
+import com.healthcare.appointmentsystem.schedule.EffectiveSchedule;
+import com.healthcare.appointmentsystem.schedule.OccupancyStore;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the per-node schedule caches coherent across nodes. Local events
+ * update this node's caches directly; committed changes are then announced
+ * on the invalidation bus so the other nodes drop what they cached for the
+ * doctor and reload it on next use.
+ */
+@Component
+public class ScheduleCoherence {
+
+    private static final String APPOINTMENTS = "schedule:appointments";
+    private static final String AVAILABILITY = "schedule:availability";
+
+    private final InvalidationBus bus;
+
+    public ScheduleCoherence(InvalidationBus bus, OccupancyStore occupancyStore,
+                             CapacityTracker capacityTracker, EffectiveSchedule effectiveSchedule) {
+        this.bus = bus;
+        bus.subscribe(APPOINTMENTS, message -> {
+            Long doctorId = Long.valueOf(message);
+            occupancyStore.evict(doctorId);
+            capacityTracker.evict(doctorId);
+        });
+        bus.subscribe(AVAILABILITY, message -> {
+            Long doctorId = Long.valueOf(message);
+            effectiveSchedule.refresh(doctorId);
+            occupancyStore.evict(doctorId);
+            capacityTracker.evict(doctorId);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.getDoctorId() != null) {
+            bus.publish(APPOINTMENTS, event.getDoctorId().toString());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        if (event.getDoctorId() != null) {
+            bus.publish(AVAILABILITY, event.getDoctorId().toString());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.healthcare.appointmentsystem.datasource;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Read-only transaction, served by the replica when one is configured.
+ * Only for reads whose entities are not modified later in the same request:
+ * with open-in-view the persistence context outlives the transaction and
+ * keeps them read-only, so changes to them would not be flushed.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReadOnlyTransactional {
+}
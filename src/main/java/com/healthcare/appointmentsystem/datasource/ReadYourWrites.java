@@ -0,0 +1,59 @@
+package com.healthcare.appointmentsystem.datasource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a user's reads on the primary for a short while after one of their
+ * write transactions commits, longer than the replica is allowed to lag,
+ * so a patient who just booked sees the booking in the next list call.
+ */
+public class ReadYourWrites {
+
+    private final long stickyMs;
+    // username -> reads stay on the primary until this instant, epoch millis
+    private final ConcurrentHashMap<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWrites(long stickyMs) {
+        this.stickyMs = stickyMs;
+    }
+
+    public boolean isCurrentUserSticky() {
+        String username = currentUsername();
+        if (username == null) {
+            return false;
+        }
+        Long until = stickyUntil.get(username);
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    // Called when a read-write transaction takes its connection
+    void onWriteTransaction() {
+        String username = currentUsername();
+        if (username == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stickyUntil.put(username, System.currentTimeMillis() + stickyMs);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.sticky-purge-ms:60000}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        stickyUntil.values().removeIf(until -> until <= now);
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
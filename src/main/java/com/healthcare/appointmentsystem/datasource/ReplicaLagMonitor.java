@@ -0,0 +1,82 @@
+package com.healthcare.appointmentsystem.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how far the replica is behind the primary. The replica is only
+ * used while the last measurement succeeded and stayed under the limit; it
+ * starts out unused until the first check passes. With an empty lag query
+ * (e.g. two embedded databases in development) the lag counts as zero and
+ * only reachability is checked.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private volatile boolean usable;
+    private volatile long lastLagMs = -1;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, String lagQuery, long maxLagMs) {
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.replica.setQueryTimeout(2);
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-ms:2000}")
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            Number lag = lagQuery.isBlank()
+                    ? replica.queryForObject("SELECT 0", Integer.class)
+                    : replica.queryForObject(lagQuery, Number.class);
+            lastLagMs = lag == null ? 0 : lag.longValue();
+            usable = lastLagMs <= maxLagMs;
+        } catch (RuntimeException ex) {
+            lastLagMs = -1;
+            usable = false;
+            if (wasUsable) {
+                logger.warn("Replica check failed, reading from the primary", ex);
+            }
+            return;
+        }
+        if (wasUsable != usable) {
+            logger.info("Replica lag {} ms, {} the replica", lastLagMs, usable ? "using" : "not using");
+        }
+    }
+
+    void countReplicaRead() {
+        replicaReads.increment();
+    }
+
+    void countFallback() {
+        fallbacks.increment();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("replicaUsable", usable);
+        metrics.put("lastLagMs", lastLagMs);
+        metrics.put("maxLagMs", maxLagMs);
+        metrics.put("replicaReads", replicaReads.sum());
+        metrics.put("primaryFallbacks", fallbacks.sum());
+        return metrics;
+    }
+}
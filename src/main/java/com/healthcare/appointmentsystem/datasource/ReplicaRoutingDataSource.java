@@ -0,0 +1,41 @@
+package com.healthcare.appointmentsystem.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the
+ * primary. Falls back to the primary while the replica lags behind or is
+ * unreachable, and for users who wrote recently, so they read their own
+ * bookings. Must sit behind a LazyConnectionDataSourceProxy: the read-only
+ * flag of a transaction is only known once the transaction has started,
+ * after the transaction manager asked for a connection.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWrites readYourWrites;
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor, ReadYourWrites readYourWrites) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (lagMonitor.isReplicaUsable() && !readYourWrites.isCurrentUserSticky()) {
+                lagMonitor.countReplicaRead();
+                return Target.REPLICA;
+            }
+            lagMonitor.countFallback();
+            return Target.PRIMARY;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            readYourWrites.onWriteTransaction();
+        }
+        return Target.PRIMARY;
+    }
+}
@@ -26,4 +26,10 @@ public class AppointmentRequestDTO {
     private String notes;
     
     private AppointmentStatus status;
+
+    // Explicit length in minutes; when absent the length is slotCount slots of the doctor's window
+    private Integer durationMinutes;
+
+    // Number of consecutive slots to book in one appointment, defaults to 1
+    private Integer slotCount;
 }
@@ -12,6 +12,9 @@ import lombok.NoArgsConstructor;
 public class AuthenticationResponseDTO {
     private String token;
     private String tokenType = "Bearer";
+    // Seconds until the access token expires
+    private Long expiresIn;
+    private String refreshToken;
     private Long userId;
     private String username;
     private String firstName;
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalTime;
 
 @Data
 @Builder
@@ -18,8 +19,8 @@ public class AvailabilityResponseDTO {
     private String doctorName;
     private DayOfWeek dayOfWeek;
     private LocalDate specificDate;
-    private LocalDate startTime;
-    private LocalDate endTime;
+    private LocalTime startTime;
+    private LocalTime endTime;
     private boolean available;
     private int slotDuration;
     private String notes;
@@ -0,0 +1,33 @@
+package com.healthcare.appointmentsystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.healthcare.appointmentsystem.model.AppointmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEventDTO {
+    private String resource;
+    private String changeType;
+    private Long appointmentId;
+    private Long availabilityId;
+    private Long waitlistEntryId;
+    private Long doctorId;
+    private Long patientId;
+    private LocalDateTime appointmentDateTime;
+    private LocalDateTime endDateTime;
+    private AppointmentStatus status;
+    private DayOfWeek dayOfWeek;
+    private LocalDate specificDate;
+    private LocalDateTime occurredAt;
+}
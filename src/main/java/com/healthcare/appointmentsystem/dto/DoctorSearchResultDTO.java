@@ -0,0 +1,19 @@
+package com.healthcare.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorSearchResultDTO {
+    private Long doctorId;
+    private String firstName;
+    private String lastName;
+    private String specialization;
+    private String officeLocation;
+    private double score;
+}
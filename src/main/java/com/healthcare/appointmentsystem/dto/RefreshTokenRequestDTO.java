@@ -0,0 +1,9 @@
+package com.healthcare.appointmentsystem.dto;
+
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequestDTO {
+
+    private String refreshToken;
+}
@@ -0,0 +1,21 @@
+package com.healthcare.appointmentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotHoldDTO {
+    private String holdId;
+    private Long doctorId;
+    private Long patientId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private LocalDateTime expiresAt;
+}
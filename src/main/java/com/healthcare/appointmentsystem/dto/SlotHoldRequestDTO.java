@@ -0,0 +1,21 @@
+package com.healthcare.appointmentsystem.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class SlotHoldRequestDTO {
+
+    private Long doctorId;
+
+    // Taken from the token for patients, only admins may set it
+    private Long patientId;
+
+    private LocalDateTime startTime;
+
+    // Defaults to the slot duration of the doctor's window
+    private Integer durationMinutes;
+}
@@ -0,0 +1,27 @@
+package com.healthcare.appointmentsystem.dto;
+
+import lombok.Getter;
+
+/**
+ * Aggregate fingerprint of a set of versioned rows (row count, sum of
+ * versions and sum of ids). Any insert, update or delete changes at least
+ * one component, so it can back an ETag without loading the rows.
+ */
+@Getter
+public class VersionStampDTO {
+    private final long count;
+    private final long versionSum;
+    private final long idSum;
+
+    // Used by JPQL constructor expressions, SUM() returns null for empty sets
+    public VersionStampDTO(Long count, Long versionSum, Long idSum) {
+        this.count = count == null ? 0L : count;
+        this.versionSum = versionSum == null ? 0L : versionSum;
+        this.idSum = idSum == null ? 0L : idSum;
+    }
+
+    @Override
+    public String toString() {
+        return count + "." + versionSum + "." + idSum;
+    }
+}
@@ -0,0 +1,25 @@
+package com.healthcare.appointmentsystem.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class WaitlistRequestDTO {
+
+    // Taken from the token for patients, only admins may set it
+    private Long patientId;
+
+    // Either a doctor or a specialization
+    private Long doctorId;
+
+    private String specialization;
+
+    private LocalDateTime windowStart;
+
+    private LocalDateTime windowEnd;
+
+    private boolean autoBook;
+}
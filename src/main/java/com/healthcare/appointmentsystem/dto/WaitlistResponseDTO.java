@@ -0,0 +1,29 @@
+package com.healthcare.appointmentsystem.dto;
+
+import com.healthcare.appointmentsystem.model.WaitlistStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistResponseDTO {
+    private Long id;
+    private Long patientId;
+    private Long doctorId;
+    private String specialization;
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+    private boolean autoBook;
+    private WaitlistStatus status;
+    private Long offeredDoctorId;
+    private LocalDateTime offeredStart;
+    private LocalDateTime offeredEnd;
+    private Long appointmentId;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,38 @@
+package com.healthcare.appointmentsystem.event;
+
+import com.healthcare.appointmentsystem.model.Appointment;
+import com.healthcare.appointmentsystem.model.AppointmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by the appointment service whenever an appointment is created,
+ * updated, has its status changed or is deleted. Carries a snapshot of the
+ * fields listeners need so they don't have to reload the entity.
+ */
+@Getter
+@AllArgsConstructor
+public class AppointmentChangedEvent {
+    private final ChangeType changeType;
+    private final Long appointmentId;
+    private final Long doctorId;
+    private final Long patientId;
+    private final LocalDateTime appointmentDateTime;
+    private final LocalDateTime endDateTime;
+    private final AppointmentStatus status;
+    private final LocalDateTime occurredAt;
+
+    public static AppointmentChangedEvent of(ChangeType changeType, Appointment appointment) {
+        return new AppointmentChangedEvent(
+                changeType,
+                appointment.getId(),
+                appointment.getDoctor() != null ? appointment.getDoctor().getId() : null,
+                appointment.getPatient() != null ? appointment.getPatient().getId() : null,
+                appointment.getAppointmentDateTime(),
+                appointment.getEndDateTime(),
+                appointment.getStatus(),
+                LocalDateTime.now());
+    }
+}
@@ -0,0 +1,34 @@
+package com.healthcare.appointmentsystem.event;
+
+import com.healthcare.appointmentsystem.model.DoctorAvailability;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Published by the availability service whenever a doctor's availability
+ * is created, updated or deleted.
+ */
+@Getter
+@AllArgsConstructor
+public class AvailabilityChangedEvent {
+    private final ChangeType changeType;
+    private final Long availabilityId;
+    private final Long doctorId;
+    private final DayOfWeek dayOfWeek;
+    private final LocalDate specificDate;
+    private final LocalDateTime occurredAt;
+
+    public static AvailabilityChangedEvent of(ChangeType changeType, DoctorAvailability availability) {
+        return new AvailabilityChangedEvent(
+                changeType,
+                availability.getId(),
+                availability.getDoctor() != null ? availability.getDoctor().getId() : null,
+                availability.getDayOfWeek(),
+                availability.getSpecificDate(),
+                LocalDateTime.now());
+    }
+}
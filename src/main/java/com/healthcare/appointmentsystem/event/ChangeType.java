@@ -0,0 +1,5 @@
+package com.healthcare.appointmentsystem.event;
+
+public enum ChangeType {
+    CREATED, UPDATED, STATUS_CHANGED, DELETED
+}
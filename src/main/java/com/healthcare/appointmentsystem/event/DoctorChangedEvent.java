@@ -0,0 +1,22 @@
+package com.healthcare.appointmentsystem.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by the doctor service whenever a doctor is created, updated
+ * or deleted.
+ */
+@Getter
+@AllArgsConstructor
+public class DoctorChangedEvent {
+    private final ChangeType changeType;
+    private final Long doctorId;
+    private final LocalDateTime occurredAt;
+
+    public static DoctorChangedEvent of(ChangeType changeType, Long doctorId) {
+        return new DoctorChangedEvent(changeType, doctorId, LocalDateTime.now());
+    }
+}
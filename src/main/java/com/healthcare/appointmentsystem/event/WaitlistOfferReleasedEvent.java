@@ -0,0 +1,16 @@
+package com.healthcare.appointmentsystem.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// An offered slot was declined or timed out and can go to the next candidate
+@Getter
+@AllArgsConstructor
+public class WaitlistOfferReleasedEvent {
+    private final Long waitlistEntryId;
+    private final Long doctorId;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+}
@@ -0,0 +1,18 @@
+package com.healthcare.appointmentsystem.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// A freed slot was offered to a waitlisted patient
+@Getter
+@AllArgsConstructor
+public class WaitlistOfferedEvent {
+    private final Long waitlistEntryId;
+    private final Long patientId;
+    private final Long doctorId;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final LocalDateTime occurredAt;
+}
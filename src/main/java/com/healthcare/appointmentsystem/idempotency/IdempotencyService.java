@@ -0,0 +1,295 @@
+package com.healthcare.appointmentsystem.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.appointmentsystem.exception.BadRequestException;
+import com.healthcare.appointmentsystem.exception.ConflictException;
+import com.healthcare.appointmentsystem.exception.UnprocessableEntityException;
+import com.healthcare.appointmentsystem.model.IdempotencyRecord;
+import com.healthcare.appointmentsystem.repository.IdempotencyRecordRepository;
+import com.healthcare.appointmentsystem.util.HashedTimerWheel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executes a request at most once per Idempotency-Key.
+ *
+ * The first request with a key runs the action and records its response;
+ * retries with the same key and body get the recorded response back, and
+ * retries that arrive while the first one is still running wait for its
+ * result instead of executing again. Reusing a key with a different body
+ * is rejected. Keys are scoped by endpoint and user.
+ *
+ * Responses live in a bounded in-memory map expired by a timer wheel.
+ * With app.idempotency.persist=true they are also written to the
+ * idempotency_keys table, which makes replays survive restarts and lets a
+ * second instance see that a key is already being processed. A claim that
+ * never completed, because its instance died, can be taken over once it is
+ * older than app.idempotency.lease-seconds.
+ */
+@Component
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ObjectMapper objectMapper;
+    private final IdempotencyRecordRepository recordRepository;
+    private final TransactionTemplate newTransaction;
+    private final long ttlMs;
+    private final long waitMs;
+    private final long leaseMs;
+    private final boolean persist;
+    private final Map<String, Entry> entries;
+    private final HashedTimerWheel<String> timerWheel;
+
+    public IdempotencyService(ObjectMapper objectMapper,
+                              IdempotencyRecordRepository recordRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                              @Value("${app.idempotency.max-entries:10000}") int maxEntries,
+                              @Value("${app.idempotency.wait-ms:10000}") long waitMs,
+                              @Value("${app.idempotency.lease-seconds:60}") long leaseSeconds,
+                              @Value("${app.idempotency.persist:false}") boolean persist) {
+        this.objectMapper = objectMapper;
+        this.recordRepository = recordRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttlMs = ttlSeconds * 1000;
+        this.waitMs = waitMs;
+        this.leaseMs = leaseSeconds * 1000;
+        this.persist = persist;
+        // Insertion ordered, so the oldest completed key goes first once the map is full;
+        // keys still in flight are never evicted, or a retry would run the request again
+        this.entries = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= maxEntries) {
+                    return false;
+                }
+                Iterator<Entry> values = values().iterator();
+                while (values.hasNext()) {
+                    if (values.next().result.isDone()) {
+                        values.remove();
+                        break;
+                    }
+                }
+                return false;
+            }
+        };
+        this.timerWheel = new HashedTimerWheel<>(1000, 1024, System.currentTimeMillis());
+    }
+
+    public <T> ResponseEntity<T> execute(String scope, String key, Object request, Class<T> bodyType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String storageKey = storageKey(scope, key);
+        String requestHash = hash(request);
+        long now = System.currentTimeMillis();
+
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            entry = entries.get(storageKey);
+            if (entry != null && entry.expiresAtMs <= now) {
+                entries.remove(storageKey);
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Entry(requestHash, now + ttlMs);
+                entries.put(storageKey, entry);
+                owner = true;
+            }
+        }
+        if (!entry.requestHash.equals(requestHash)) {
+            throw new UnprocessableEntityException(HEADER + " was already used for a different request");
+        }
+        if (!owner) {
+            return replay(awaitResult(entry), bodyType);
+        }
+        timerWheel.schedule(storageKey, entry.expiresAtMs);
+
+        if (persist) {
+            StoredResponse stored = claimRecord(storageKey, requestHash, entry);
+            if (stored != null) {
+                entry.result.complete(stored);
+                return replay(stored, bodyType);
+            }
+        }
+
+        try {
+            ResponseEntity<T> response = action.get();
+            StoredResponse stored = new StoredResponse(response.getStatusCode().value(), toJson(response.getBody()));
+            if (persist) {
+                newTransaction.executeWithoutResult(status -> recordRepository.findById(storageKey).ifPresent(record -> {
+                    record.setStatusCode(stored.getStatusCode());
+                    record.setResponseBody(stored.getBody());
+                    recordRepository.save(record);
+                }));
+            }
+            entry.result.complete(stored);
+            return response;
+        } catch (RuntimeException ex) {
+            // Failures are not recorded, a retry runs the request again
+            forget(storageKey, entry, true);
+            entry.result.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void expire() {
+        long now = System.currentTimeMillis();
+        timerWheel.advance(now, storageKey -> {
+            synchronized (entries) {
+                Entry entry = entries.get(storageKey);
+                if (entry != null && entry.expiresAtMs <= now) {
+                    entries.remove(storageKey);
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:600000}")
+    public void purgeExpiredRecords() {
+        if (persist) {
+            newTransaction.executeWithoutResult(status -> recordRepository.deleteExpired(LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Claims the key in the database. Returns the recorded response when an
+     * earlier request already completed, null when this request may run.
+     */
+    private StoredResponse claimRecord(String storageKey, String requestHash, Entry entry) {
+        IdempotencyRecord existing = newTransaction.execute(status -> recordRepository.findById(storageKey)
+                .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now()))
+                .orElse(null));
+        if (existing != null) {
+            if (!existing.getRequestHash().equals(requestHash)) {
+                forget(storageKey, entry, false);
+                throw new UnprocessableEntityException(HEADER + " was already used for a different request");
+            }
+            if (existing.getStatusCode() != null) {
+                return new StoredResponse(existing.getStatusCode(), existing.getResponseBody());
+            }
+            // A claim past its lease belongs to an instance that died mid-request and is taken over below
+            if (existing.getCreatedAt().plusNanos(leaseMs * 1_000_000).isAfter(LocalDateTime.now())) {
+                forget(storageKey, entry, false);
+                throw new ConflictException("A request with this " + HEADER + " is still being processed");
+            }
+        }
+        // Only an expired row or a claim past its lease is removed, never a live claim another
+        // instance just committed; the insert then fails for everyone but one claimant
+        Integer claimed = newTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            recordRepository.deleteReclaimable(storageKey, now, now.minusNanos(leaseMs * 1_000_000));
+            return recordRepository.insertClaim(storageKey, requestHash, now, now.plusNanos(ttlMs * 1_000_000));
+        });
+        if (claimed == null || claimed == 0) {
+            // Another instance claimed the key first
+            forget(storageKey, entry, false);
+            throw new ConflictException("A request with this " + HEADER + " is still being processed");
+        }
+        return null;
+    }
+
+    private StoredResponse awaitResult(Entry entry) {
+        try {
+            return entry.result.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new ConflictException("A request with this " + HEADER + " is still being processed");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting for the original request");
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, Class<T> bodyType) {
+        try {
+            T body = stored.getBody() == null ? null : objectMapper.readValue(stored.getBody(), bodyType);
+            return ResponseEntity.status(stored.getStatusCode()).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read recorded response", ex);
+        }
+    }
+
+    // Only the claim's owner may drop the database row; a rejected claimant would delete someone else's
+    private void forget(String storageKey, Entry entry, boolean ownClaim) {
+        synchronized (entries) {
+            entries.remove(storageKey, entry);
+        }
+        if (persist && ownClaim) {
+            newTransaction.executeWithoutResult(status -> recordRepository.findById(storageKey)
+                    .filter(record -> record.getStatusCode() == null && record.getRequestHash().equals(entry.requestHash))
+                    .ifPresent(recordRepository::delete));
+        }
+    }
+
+    private static String storageKey(String scope, String key) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String user = authentication != null ? authentication.getName() : "anonymous";
+        return scope + "|" + user + "|" + key;
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(
+                    toJson(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private String toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize idempotent request or response", ex);
+        }
+    }
+
+    private static final class Entry {
+        private final String requestHash;
+        private final long expiresAtMs;
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+
+        private Entry(String requestHash, long expiresAtMs) {
+            this.requestHash = requestHash;
+            this.expiresAtMs = expiresAtMs;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.healthcare.appointmentsystem.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Outcome of the first execution of an idempotent request, body kept as JSON
+@Getter
+@AllArgsConstructor
+public class StoredResponse {
+    private final int statusCode;
+    private final String body;
+}
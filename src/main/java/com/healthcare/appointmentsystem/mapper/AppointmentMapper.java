@@ -4,6 +4,7 @@ import com.healthcare.appointmentsystem.dto.AppointmentRequestDTO;
 import com.healthcare.appointmentsystem.dto.AppointmentResponseDTO;
 import com.healthcare.appointmentsystem.dto.AppointmentSummaryDTO;
 import com.healthcare.appointmentsystem.dto.DoctorDTO;
+import com.healthcare.appointmentsystem.exception.BadRequestException;
 import com.healthcare.appointmentsystem.model.Appointment;
 import com.healthcare.appointmentsystem.model.Doctor;
 import com.healthcare.appointmentsystem.model.Patient;
@@ -125,10 +126,8 @@ public class AppointmentMapper {
             return;
         }
         
-        // Update appointment date time which will also update end time
-        if(dto.getAppointmentDateTime() != null) {
-            appointment.setAppointmentDateTime(dto.getAppointmentDateTime());
-        }
+        // Start time and length are not copied here; moving an appointment goes through
+        // AppointmentService.updateAppointment so it is checked like a new booking
         
         // Update basic fields
         if(dto.getReason() != null) {
@@ -139,15 +138,16 @@ public class AppointmentMapper {
             appointment.setNotes(dto.getNotes());
         }
         
-        // Update referenced entities
-        if(dto.getDoctorId() != null) {
-            doctorService.getDoctorById(dto.getDoctorId())
-                .ifPresent(appointment::setDoctor);
+        // Doctor and patient are fixed; a different doctor means cancelling and booking anew,
+        // which runs the availability checks and frees the old doctor's slot
+        if(dto.getDoctorId() != null && (appointment.getDoctor() == null
+                || !dto.getDoctorId().equals(appointment.getDoctor().getId()))) {
+            throw new BadRequestException("The doctor of an appointment cannot be changed, cancel it and book a new one");
         }
         
-        if(dto.getPatientId() != null) {
-            patientService.findPatientById(dto.getPatientId())
-                .ifPresent(appointment::setPatient);
+        if(dto.getPatientId() != null && (appointment.getPatient() == null
+                || !dto.getPatientId().equals(appointment.getPatient().getId()))) {
+            throw new BadRequestException("The patient of an appointment cannot be changed");
         }
     }
 
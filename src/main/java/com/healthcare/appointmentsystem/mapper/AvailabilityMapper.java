@@ -6,8 +6,6 @@ import com.healthcare.appointmentsystem.model.Doctor;
 import com.healthcare.appointmentsystem.model.DoctorAvailability;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDate;
-
 @Component
 public class AvailabilityMapper {
 
@@ -60,8 +58,8 @@ public class AvailabilityMapper {
                 .doctorName(entity.getDoctor().getFirstName() + " " + entity.getDoctor().getLastName())
                 .dayOfWeek(entity.getDayOfWeek())
                 .specificDate(entity.getSpecificDate())
-                .startTime(LocalDate.from(entity.getStartTime()))
-                .endTime(LocalDate.from(entity.getEndTime()))
+                .startTime(entity.getStartTime())
+                .endTime(entity.getEndTime())
                 .available(entity.isAvailable())
                 .notes(entity.getNotes())
                 .slotDuration(entity.getSlotDuration())
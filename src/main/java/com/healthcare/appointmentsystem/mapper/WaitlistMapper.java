@@ -0,0 +1,27 @@
+package com.healthcare.appointmentsystem.mapper;
+
+import com.healthcare.appointmentsystem.dto.WaitlistResponseDTO;
+import com.healthcare.appointmentsystem.model.WaitlistEntry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WaitlistMapper {
+
+    public WaitlistResponseDTO toResponseDTO(WaitlistEntry entry) {
+        return WaitlistResponseDTO.builder()
+                .id(entry.getId())
+                .patientId(entry.getPatient().getId())
+                .doctorId(entry.getDoctor() != null ? entry.getDoctor().getId() : null)
+                .specialization(entry.getSpecialization())
+                .windowStart(entry.getWindowStart())
+                .windowEnd(entry.getWindowEnd())
+                .autoBook(entry.isAutoBook())
+                .status(entry.getStatus())
+                .offeredDoctorId(entry.getOfferedDoctorId())
+                .offeredStart(entry.getOfferedStart())
+                .offeredEnd(entry.getOfferedEnd())
+                .appointmentId(entry.getAppointmentId())
+                .createdAt(entry.getCreatedAt())
+                .build();
+    }
+}
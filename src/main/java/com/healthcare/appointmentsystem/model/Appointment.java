@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Entity
@@ -54,6 +55,11 @@ public class Appointment {
     
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    // Optimistic lock, also exposed to clients as the ETag
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
     
     private static final int DEFAULT_DURATION = 30;
 
@@ -78,13 +84,24 @@ public class Appointment {
         this.updatedAt = LocalDateTime.now();
     }
     
-    // Use default end time to figure out the end date
+    // Moving an appointment keeps its length and status, new appointments get the default length
     public void setAppointmentDateTime(LocalDateTime startTime) {
+        int duration = getDurationMinutes() > 0 ? getDurationMinutes() : DEFAULT_DURATION;
         this.appointmentDateTime = startTime;
         if(startTime != null){
-            this.endDateTime = startTime.plusMinutes(DEFAULT_DURATION);
-            this.status = AppointmentStatus.SCHEDULED;
+            this.endDateTime = startTime.plusMinutes(duration);
+            if(this.status == null){
+                this.status = AppointmentStatus.SCHEDULED;
+            }
+        }
+    }
+
+    // Length in minutes, 0 while start or end is unknown
+    public int getDurationMinutes() {
+        if (appointmentDateTime == null || endDateTime == null) {
+            return 0;
         }
+        return (int) Duration.between(appointmentDateTime, endDateTime).toMinutes();
     }
     
     // Use custom duration to figure out the end time
@@ -93,6 +110,8 @@ public class Appointment {
         if(startTime != null){
             this.endDateTime = startTime.plusMinutes(duration);
         }
-        this.status = AppointmentStatus.SCHEDULED;
+        if(this.status == null){
+            this.status = AppointmentStatus.SCHEDULED;
+        }
     }
 }
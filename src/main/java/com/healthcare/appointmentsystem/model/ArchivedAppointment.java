@@ -0,0 +1,74 @@
+package com.healthcare.appointmentsystem.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A completed or cancelled appointment moved out of the live table by the
+ * archiver. Rows keep their original id and are never modified again. The
+ * doctor and patient references carry no foreign keys so the archive does
+ * not hold up deleting them.
+ */
+@Entity
+@Table(name = "appointments_archive", indexes = {
+        @Index(name = "idx_archive_doctor_date", columnList = "doctor_id, appointment_date_time"),
+        @Index(name = "idx_archive_patient", columnList = "patient_id")
+})
+@Getter
+@Setter
+public class ArchivedAppointment {
+    // Same id the appointment had in the live table
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Doctor doctor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Patient patient;
+
+    @Column(name = "appointment_date_time", nullable = false)
+    private LocalDateTime appointmentDateTime;
+
+    @Column(name = "end_time")
+    private LocalDateTime endDateTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AppointmentStatus status;
+
+    @Column(columnDefinition = "TEXT")
+    private String notes;
+
+    @Column(nullable = false)
+    private String reason;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "version")
+    private Long version;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Detached copy in the live shape, so history reads can reuse the appointment mapping
+    public Appointment toAppointment() {
+        Appointment appointment = new Appointment(doctor, patient, appointmentDateTime, status, reason);
+        appointment.setId(id);
+        appointment.setEndDateTime(endDateTime);
+        appointment.setNotes(notes);
+        appointment.setCreatedAt(createdAt);
+        appointment.setUpdatedAt(updatedAt);
+        appointment.setVersion(version);
+        return appointment;
+    }
+}
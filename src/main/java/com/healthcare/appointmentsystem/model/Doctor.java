@@ -1,13 +1,19 @@
 package com.healthcare.appointmentsystem.model;
 
+import com.healthcare.appointmentsystem.cache.CacheRegions;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "doctors")
+// Directory data; a briefly stale read is harmless and writes are version checked
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = CacheRegions.DOCTORS)
 @Getter
 @Setter
 public class Doctor {
@@ -40,6 +46,11 @@ public class Doctor {
     @Column(name = "updated_at")
     private LocalDate updateDate;
 
+    // Optimistic lock, also the source of the doctor directory ETag
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
+
     public Doctor() {}
     public Doctor(String firstName, String lastName, String specialization, String licenseNumber) {
         this.firstName = firstName;
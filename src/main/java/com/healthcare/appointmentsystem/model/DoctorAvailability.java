@@ -1,4 +1,5 @@
 package com.healthcare.appointmentsystem.model;
+import com.healthcare.appointmentsystem.cache.CacheRegions;
 import jakarta.persistence.*;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -6,6 +7,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
@@ -14,6 +17,9 @@ import java.time.LocalTime;
 
 @Entity
 @Table(name = "doctor_availabilities")
+// Slot checks depend on it, so concurrent edits are soft-locked rather than raced
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.DOCTOR_AVAILABILITIES)
 @Getter
 @Setter
 public class DoctorAvailability {
@@ -51,6 +57,11 @@ public class DoctorAvailability {
     @Column(name="notes")
     private String notes;
 
+    // Optimistic lock, also exposed to clients as the ETag
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
+
     @PrePersist
     private void onCreate() {
         this.createDate = LocalDate.now();
@@ -0,0 +1,40 @@
+package com.healthcare.appointmentsystem.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable copy of an idempotent request's outcome, used when
+ * app.idempotency.persist is enabled so replays survive restarts and
+ * reach other instances. A row without a status code is still in progress.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+public class IdempotencyRecord {
+    // Scope and client key, see IdempotencyService.storageKey
+    @Id
+    @Column(name = "id", length = 400)
+    private String id;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "status_code")
+    private Integer statusCode;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
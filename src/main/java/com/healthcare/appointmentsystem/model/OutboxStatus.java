@@ -0,0 +1,5 @@
+package com.healthcare.appointmentsystem.model;
+
+public enum OutboxStatus {
+    PENDING, PUBLISHED, FAILED
+}
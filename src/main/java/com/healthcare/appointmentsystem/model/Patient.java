@@ -4,12 +4,14 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "patients")
+@DynamicUpdate
 @Data
 @Getter
 @Setter
@@ -45,6 +47,11 @@ public class Patient {
     
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    // Optimistic lock so concurrent profile edits don't overwrite each other
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
     
     @PrePersist
     protected void onCreate() {
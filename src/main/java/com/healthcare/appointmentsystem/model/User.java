@@ -1,9 +1,13 @@
 package com.healthcare.appointmentsystem.model;
 
+import com.healthcare.appointmentsystem.cache.CacheRegions;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 
 import java.time.LocalDateTime;
@@ -11,6 +15,10 @@ import java.time.LocalDateTime;
 @Setter
 @Entity
 @Table(name = "users")
+// Lock and enabled state must never be read stale, so entries are soft-locked while written
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USERS)
+@DynamicUpdate
 @Data
 public class User {
     @Id
@@ -49,6 +57,10 @@ public class User {
     @Column(name = "account_non_locked")
     private boolean accountNonLocked = true;
 
+    // Temporary lock after repeated failed logins, the account unlocks itself once this passes
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
     @Column(name = "credentials_non_expired")
     private boolean credentialsNonExpired = true;
 
@@ -64,6 +76,11 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Optimistic lock so concurrent profile edits don't overwrite each other
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
+
     public User() {}
 
     public User(String username, String password, String email, Role role) {
@@ -75,6 +92,10 @@ public class User {
         this.updatedAt = LocalDateTime.now();
     }
 
+    public boolean isLockExpired() {
+        return !accountNonLocked && lockedUntil != null && lockedUntil.isBefore(LocalDateTime.now());
+    }
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
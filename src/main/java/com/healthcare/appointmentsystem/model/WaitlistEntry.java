@@ -0,0 +1,92 @@
+package com.healthcare.appointmentsystem.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A patient's interest in any free time within a window, either with one
+ * doctor or with any doctor of a specialization.
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+        @Index(name = "idx_waitlist_status", columnList = "status"),
+        @Index(name = "idx_waitlist_patient", columnList = "patient_id")
+})
+@Getter
+@Setter
+public class WaitlistEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "patient_id", referencedColumnName = "id", nullable = false)
+    private Patient patient;
+
+    // Either a doctor or a specialization is set
+    @ManyToOne
+    @JoinColumn(name = "doctor_id", referencedColumnName = "id")
+    private Doctor doctor;
+
+    private String specialization;
+
+    @Column(name = "window_start", nullable = false)
+    private LocalDateTime windowStart;
+
+    @Column(name = "window_end", nullable = false)
+    private LocalDateTime windowEnd;
+
+    // Book the freed slot directly instead of offering it
+    @Column(name = "auto_book", nullable = false)
+    private boolean autoBook;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    @Column(name = "offered_doctor_id")
+    private Long offeredDoctorId;
+
+    @Column(name = "offered_start")
+    private LocalDateTime offeredStart;
+
+    @Column(name = "offered_end")
+    private LocalDateTime offeredEnd;
+
+    @Column(name = "offered_at")
+    private LocalDateTime offeredAt;
+
+    @Column(name = "appointment_id")
+    private Long appointmentId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
+
+    @PrePersist
+    private void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    private void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void clearOffer() {
+        this.offeredDoctorId = null;
+        this.offeredStart = null;
+        this.offeredEnd = null;
+        this.offeredAt = null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.healthcare.appointmentsystem.model;
+
+public enum WaitlistStatus {
+    WAITING,
+    OFFERED,
+    BOOKED,
+    EXPIRED,
+    CANCELLED
+}
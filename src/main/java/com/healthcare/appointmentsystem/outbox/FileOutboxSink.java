@@ -0,0 +1,40 @@
+package com.healthcare.appointmentsystem.outbox;
+
+import com.healthcare.appointmentsystem.model.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends relayed events as tab separated lines to a local file.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path path;
+
+    public FileOutboxSink(@Value("${app.outbox.file-path:outbox-events.log}") String path) {
+        this.path = Paths.get(path);
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void publish(OutboxEvent event) throws IOException {
+        String line = event.getId() + "\t" + event.getEventType() + "\t" + event.getAggregateType() + "\t"
+                + event.getAggregateId() + "\t" + event.getPayload() + System.lineSeparator();
+        Files.writeString(path, line, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
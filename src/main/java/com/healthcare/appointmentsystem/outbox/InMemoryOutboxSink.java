@@ -0,0 +1,47 @@
+package com.healthcare.appointmentsystem.outbox;
+
+import com.healthcare.appointmentsystem.model.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recently relayed events in memory, meant for local runs and tests.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final Deque<OutboxEvent> events = new ArrayDeque<>();
+    private final int capacity;
+
+    public InMemoryOutboxSink(@Value("${app.outbox.memory-capacity:1000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+
+    @Override
+    public synchronized void publish(OutboxEvent event) {
+        if (events.size() >= capacity) {
+            events.removeFirst();
+        }
+        events.addLast(event);
+    }
+
+    public synchronized List<OutboxEvent> getPublishedEvents() {
+        return new ArrayList<>(events);
+    }
+
+    public synchronized void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,132 @@
+package com.healthcare.appointmentsystem.outbox;
+
+import com.healthcare.appointmentsystem.model.OutboxEvent;
+import com.healthcare.appointmentsystem.model.OutboxStatus;
+import com.healthcare.appointmentsystem.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background relay that moves outbox rows to the configured sinks.
+ *
+ * Each batch is claimed with SELECT ... FOR UPDATE SKIP LOCKED inside its own
+ * transaction, published to every sink and marked as published before the
+ * transaction commits. Delivery is at-least-once: a crash between publishing
+ * and committing replays the batch. A failed event is retried with
+ * exponential backoff until maxAttempts is reached.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+
+    // Relay metrics
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong lastLagMs = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       List<OutboxSink> sinks,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${app.outbox.batch-size:100}") int batchSize,
+                       @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${app.outbox.retry-base-ms:1000}") long retryBaseMs,
+                       @Value("${app.outbox.retry-max-ms:300000}") long retryMaxMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void relay() {
+        // Keep draining while batches come back full and clean; a failing sink
+        // waits for the next poll instead of being hammered in a tight loop
+        Integer published;
+        do {
+            published = transactionTemplate.execute(status -> relayBatch());
+        } while (published != null && published == batchSize);
+    }
+
+    // Returns the number of events published
+    private int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxEventRepository.lockNextPendingBatch(now, batchSize);
+        if (batch.isEmpty()) {
+            lastLagMs.set(0);
+            return 0;
+        }
+        batchCount.incrementAndGet();
+        int published = 0;
+        for (OutboxEvent event : batch) {
+            try {
+                for (OutboxSink sink : sinks) {
+                    sink.publish(event);
+                }
+                event.setStatus(OutboxStatus.PUBLISHED);
+                event.setPublishedAt(now);
+                event.setNextAttemptAt(null);
+                publishedCount.incrementAndGet();
+                published++;
+                lastLagMs.set(Duration.between(event.getCreatedAt(), now).toMillis());
+            } catch (Exception ex) {
+                logger.warn("Failed to relay outbox event {}", event.getId(), ex);
+                event.setAttempts(event.getAttempts() + 1);
+                event.setLastError(ex.getMessage());
+                if (event.getAttempts() >= maxAttempts) {
+                    event.setStatus(OutboxStatus.FAILED);
+                    failedCount.incrementAndGet();
+                } else {
+                    event.setNextAttemptAt(now.plus(retryDelay(event.getAttempts())));
+                }
+            }
+        }
+        outboxEventRepository.saveAll(batch);
+        return published;
+    }
+
+    // base, 2x base, 4x base, ... capped at retryMaxMs
+    private Duration retryDelay(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        return Duration.ofMillis(Math.min(retryMaxMs, retryBaseMs << shift));
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("published", publishedCount.get());
+        metrics.put("failed", failedCount.get());
+        metrics.put("batches", batchCount.get());
+        metrics.put("lastLagMs", lastLagMs.get());
+        metrics.put("pending", outboxEventRepository.countByStatus(OutboxStatus.PENDING));
+        // Age of the oldest event still waiting is the current end-to-end lag
+        metrics.put("oldestPendingAgeMs", outboxEventRepository.findFirstByStatusOrderByIdAsc(OutboxStatus.PENDING)
+                .map(e -> Duration.between(e.getCreatedAt(), LocalDateTime.now()).toMillis())
+                .orElse(0L));
+        metrics.put("sinks", sinks.stream().map(OutboxSink::getName).toList());
+        return metrics;
+    }
+}
@@ -0,0 +1,12 @@
+package com.healthcare.appointmentsystem.outbox;
+
+import com.healthcare.appointmentsystem.model.OutboxEvent;
+
+/**
+ * Destination for relayed outbox events (reminder, billing, ...).
+ * Implementations must be idempotent: the relay delivers at least once.
+ */
+public interface OutboxSink {
+    String getName();
+    void publish(OutboxEvent event) throws Exception;
+}
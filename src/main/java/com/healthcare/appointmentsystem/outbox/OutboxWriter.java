@@ -0,0 +1,43 @@
+package com.healthcare.appointmentsystem.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.appointmentsystem.event.AppointmentChangedEvent;
+import com.healthcare.appointmentsystem.model.OutboxEvent;
+import com.healthcare.appointmentsystem.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Records appointment events in the outbox table. Runs before commit, so the
+ * outbox row is written in the same transaction as the appointment change
+ * and both are committed or rolled back together.
+ */
+@Component
+public class OutboxWriter {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        outboxEventRepository.save(new OutboxEvent(
+                "Appointment",
+                event.getAppointmentId(),
+                "APPOINTMENT_" + event.getChangeType().name(),
+                toJson(event)));
+    }
+
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize outbox event", ex);
+        }
+    }
+}
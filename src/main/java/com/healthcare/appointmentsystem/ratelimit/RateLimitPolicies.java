@@ -0,0 +1,43 @@
+package com.healthcare.appointmentsystem.ratelimit;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Endpoint groups and their limits, checked in order, first match wins.
+ * Authentication endpoints are limited per client IP since there is no
+ * principal yet; everything else per authenticated user.
+ */
+@Component
+public class RateLimitPolicies {
+
+    @Getter
+    private final List<RateLimitPolicy> policies;
+
+    public RateLimitPolicies(
+            @Value("${app.rate-limit.auth.capacity:20}") int authCapacity,
+            @Value("${app.rate-limit.auth.per-minute:20}") int authPerMinute,
+            @Value("${app.rate-limit.booking.capacity:30}") int bookingCapacity,
+            @Value("${app.rate-limit.booking.per-minute:60}") int bookingPerMinute,
+            @Value("${app.rate-limit.default.capacity:120}") int defaultCapacity,
+            @Value("${app.rate-limit.default.per-minute:600}") int defaultPerMinute) {
+        this.policies = List.of(
+                new RateLimitPolicy("auth", "/api/auth/**", Set.of(), true, authCapacity, authPerMinute),
+                new RateLimitPolicy("booking", "/api/appointments/**", Set.of("POST", "PUT", "PATCH", "DELETE"),
+                        false, bookingCapacity, bookingPerMinute),
+                new RateLimitPolicy("default", "/api/**", Set.of(), false, defaultCapacity, defaultPerMinute));
+    }
+
+    public RateLimitPolicy resolve(String method, String path) {
+        for (RateLimitPolicy policy : policies) {
+            if (policy.matches(method, path)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,44 @@
+package com.healthcare.appointmentsystem.ratelimit;
+
+import lombok.Getter;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Set;
+
+/**
+ * Limit for one endpoint group: a burst of {@code capacity} requests,
+ * refilled at {@code perMinute} requests per minute. Requests are counted
+ * per client IP or per authenticated user depending on {@code perClientIp}.
+ */
+@Getter
+public class RateLimitPolicy {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final String name;
+    private final String pathPattern;
+    // Empty means every method
+    private final Set<String> methods;
+    private final boolean perClientIp;
+    private final int capacity;
+    private final int perMinute;
+    // Time one token takes to refill and how far ahead of now a bucket may run
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    public RateLimitPolicy(String name, String pathPattern, Set<String> methods, boolean perClientIp,
+                           int capacity, int perMinute) {
+        this.name = name;
+        this.pathPattern = pathPattern;
+        this.methods = Set.copyOf(methods);
+        this.perClientIp = perClientIp;
+        this.capacity = Math.max(1, capacity);
+        this.perMinute = Math.max(1, perMinute);
+        this.intervalNanos = 60_000_000_000L / this.perMinute;
+        this.burstNanos = this.intervalNanos * this.capacity;
+    }
+
+    public boolean matches(String method, String path) {
+        return (methods.isEmpty() || methods.contains(method)) && PATH_MATCHER.match(pathPattern, path);
+    }
+}
@@ -0,0 +1,127 @@
+package com.healthcare.appointmentsystem.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets per policy and client, spread over a fixed number of map
+ * shards so that one shard can be capped and swept without touching the
+ * others. The hot path is a lock-free map read plus one CAS on the bucket;
+ * a bucket is only created on a client's first request.
+ *
+ * When a shard is full, a new client first makes room by dropping a few
+ * idle buckets of that shard. If none are idle the client is let through
+ * untracked and counted, which keeps memory bounded under a flood of
+ * distinct keys without making legitimate new clients share one budget.
+ */
+@Component
+public class RateLimiter {
+
+    private static final int EVICTION_SCAN = 64;
+
+    private final ConcurrentHashMap<String, TokenBucket>[] shards;
+    private final int shardMask;
+    private final int maxKeysPerShard;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+    private final RateLimitPolicies policies;
+
+    @SuppressWarnings("unchecked")
+    public RateLimiter(RateLimitPolicies policies,
+                       @Value("${app.rate-limit.shards:16}") int shards,
+                       @Value("${app.rate-limit.max-keys:100000}") int maxKeys) {
+        this.policies = policies;
+        int size = Integer.highestOneBit(Math.max(1, shards - 1) << 1);
+        this.shards = new ConcurrentHashMap[size];
+        for (int i = 0; i < size; i++) {
+            this.shards[i] = new ConcurrentHashMap<>();
+        }
+        this.shardMask = size - 1;
+        this.maxKeysPerShard = Math.max(1, maxKeys / size);
+    }
+
+    /**
+     * Takes one token from the client's bucket under the policy. Returns 0
+     * when the request may proceed, otherwise the nanoseconds to wait.
+     */
+    public long tryAcquire(RateLimitPolicy policy, String client) {
+        long now = System.nanoTime();
+        String key = policy.getName() + ':' + client;
+        ConcurrentHashMap<String, TokenBucket> shard = shards[spread(key.hashCode()) & shardMask];
+        TokenBucket bucket = shard.get(key);
+        Counters c = counters.computeIfAbsent(policy.getName(), k -> new Counters());
+        if (bucket == null) {
+            if (shard.size() >= maxKeysPerShard) {
+                evictIdle(shard, now);
+            }
+            if (shard.size() >= maxKeysPerShard) {
+                c.allowed.increment();
+                c.untracked.increment();
+                return 0;
+            }
+            bucket = shard.computeIfAbsent(key, k -> new TokenBucket(now));
+        }
+        long wait = bucket.tryAcquire(policy, now);
+        (wait == 0 ? c.allowed : c.rejected).increment();
+        return wait;
+    }
+
+    // Full buckets carry no state, drop them so idle clients do not pile up
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        for (ConcurrentHashMap<String, TokenBucket> shard : shards) {
+            shard.values().removeIf(bucket -> bucket.isIdle(now));
+        }
+    }
+
+    // Bounded, so a full shard with no idle buckets costs a new client only a short scan
+    private static void evictIdle(ConcurrentHashMap<String, TokenBucket> shard, long now) {
+        int scanned = 0;
+        Iterator<TokenBucket> buckets = shard.values().iterator();
+        while (buckets.hasNext() && scanned++ < EVICTION_SCAN) {
+            if (buckets.next().isIdle(now)) {
+                buckets.remove();
+            }
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        int keys = 0;
+        for (ConcurrentHashMap<String, TokenBucket> shard : shards) {
+            keys += shard.size();
+        }
+        metrics.put("trackedKeys", keys);
+        metrics.put("shards", shards.length);
+        Map<String, Object> perPolicy = new LinkedHashMap<>();
+        for (RateLimitPolicy policy : policies.getPolicies()) {
+            Counters c = counters.getOrDefault(policy.getName(), new Counters());
+            perPolicy.put(policy.getName(), Map.of(
+                    "capacity", policy.getCapacity(),
+                    "perMinute", policy.getPerMinute(),
+                    "allowed", c.allowed.sum(),
+                    "rejected", c.rejected.sum(),
+                    "untracked", c.untracked.sum()));
+        }
+        metrics.put("policies", perPolicy);
+        return metrics;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Counters {
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        // Allowed without a bucket because the shard was full
+        private final LongAdder untracked = new LongAdder();
+    }
+}
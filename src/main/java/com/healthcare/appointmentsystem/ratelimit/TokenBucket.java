@@ -0,0 +1,43 @@
+package com.healthcare.appointmentsystem.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept in a single long, in the "theoretical arrival time"
+ * form (GCRA): instead of a token count and a last refill time, the bucket
+ * stores the instant at which it would be full again. Taking a token moves
+ * that instant one refill interval forward; the request is refused when it
+ * would end up more than a full burst ahead of now. One CAS per request and
+ * no background refill.
+ */
+final class TokenBucket {
+
+    private final AtomicLong fullAt;
+
+    TokenBucket(long nowNanos) {
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token. Returns 0 when granted, otherwise the nanoseconds until
+     * a token will be available.
+     */
+    long tryAcquire(RateLimitPolicy policy, long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + policy.getIntervalNanos();
+            long wait = next - policy.getBurstNanos() - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // A full bucket is indistinguishable from a new one and can be dropped
+    boolean isIdle(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+}
@@ -1,6 +1,8 @@
 package com.healthcare.appointmentsystem.repository;
 
+import com.healthcare.appointmentsystem.dto.VersionStampDTO;
 import com.healthcare.appointmentsystem.model.Appointment;
+import com.healthcare.appointmentsystem.schedule.BookedInterval;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -24,6 +26,20 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             
     // Add the missing methods
     
+    /**
+     * True when another live appointment of the doctor overlaps the half-open
+     * interval; the same start always overlaps. The authoritative check for
+     * bookings, run under the doctor's booking lock.
+     */
+    @Query("SELECT COUNT(a) > 0 FROM Appointment a WHERE a.doctor.id = :doctorId AND a.id <> :excludeId " +
+           "AND a.endDateTime IS NOT NULL AND a.status <> com.healthcare.appointmentsystem.model.AppointmentStatus.CANCELLED " +
+           "AND (a.appointmentDateTime = :start OR (a.appointmentDateTime < :end AND a.endDateTime > :start))")
+    boolean existsOverlapping(
+            @Param("doctorId") Long doctorId,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("excludeId") long excludeId);
+
     /**
      * Find appointment by doctor ID and patient ID
      */
@@ -39,9 +55,9 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     List<Appointment> findAppointmentByDoctorId(@Param("doctorId") Long doctorId);
     
     /**
-     * Find appointments by patient ID
+     * Find appointments of the patient linked to a user account (users.id)
      */
-    @Query("SELECT a FROM Appointment a WHERE a.patient.id = :userId")
+    @Query("SELECT a FROM Appointment a WHERE a.patient.user.id = :userId")
     List<Appointment> findAppointmentByUserId(@Param("userId") Long userId);
     
     /**
@@ -59,4 +75,45 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     List<Appointment> findAppointmentsBetweenDates(
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+
+    /**
+     * Version fingerprint of the appointments of a user's patient record, used as ETag source
+     */
+    @Query("SELECT new com.healthcare.appointmentsystem.dto.VersionStampDTO(COUNT(a), SUM(a.version), SUM(a.id)) " +
+           "FROM Appointment a WHERE a.patient.user.id = :userId")
+    VersionStampDTO findVersionStampByUserId(@Param("userId") Long userId);
+
+    /**
+     * Version fingerprint of a doctor's appointments within a time range
+     */
+    @Query("SELECT new com.healthcare.appointmentsystem.dto.VersionStampDTO(COUNT(a), SUM(a.version), SUM(a.id)) " +
+           "FROM Appointment a WHERE a.doctor.id = :doctorId AND " +
+           "a.appointmentDateTime >= :startDateTime AND a.appointmentDateTime < :endDateTime")
+    VersionStampDTO findVersionStampByDoctorIdAndDate(
+            @Param("doctorId") Long doctorId,
+            @Param("startDateTime") LocalDateTime startDateTime,
+            @Param("endDateTime") LocalDateTime endDateTime);
+
+    /**
+     * Booked intervals of all doctors starting within a time range, cancelled ones excluded.
+     * Projected so the eager doctor and patient associations are not loaded.
+     */
+    @Query("SELECT new com.healthcare.appointmentsystem.schedule.BookedInterval(a.doctor.id, a.appointmentDateTime, a.endDateTime) " +
+           "FROM Appointment a WHERE a.appointmentDateTime >= :startDateTime AND a.appointmentDateTime < :endDateTime " +
+           "AND a.endDateTime IS NOT NULL AND a.status <> com.healthcare.appointmentsystem.model.AppointmentStatus.CANCELLED")
+    List<BookedInterval> findBookedIntervalsBetween(
+            @Param("startDateTime") LocalDateTime startDateTime,
+            @Param("endDateTime") LocalDateTime endDateTime);
+
+    /**
+     * Booked intervals of one doctor starting within a time range, cancelled ones excluded.
+     */
+    @Query("SELECT new com.healthcare.appointmentsystem.schedule.BookedInterval(a.doctor.id, a.appointmentDateTime, a.endDateTime) " +
+           "FROM Appointment a WHERE a.doctor.id = :doctorId " +
+           "AND a.appointmentDateTime >= :startDateTime AND a.appointmentDateTime < :endDateTime " +
+           "AND a.endDateTime IS NOT NULL AND a.status <> com.healthcare.appointmentsystem.model.AppointmentStatus.CANCELLED")
+    List<BookedInterval> findBookedIntervalsByDoctorIdBetween(
+            @Param("doctorId") Long doctorId,
+            @Param("startDateTime") LocalDateTime startDateTime,
+            @Param("endDateTime") LocalDateTime endDateTime);
+}
@@ -0,0 +1,46 @@
+package com.healthcare.appointmentsystem.repository;
+
+import com.healthcare.appointmentsystem.model.ArchivedAppointment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedAppointmentRepository extends JpaRepository<ArchivedAppointment, Long> {
+
+    @Query("SELECT a FROM ArchivedAppointment a JOIN FETCH a.doctor JOIN FETCH a.patient WHERE a.doctor.id = :doctorId")
+    List<ArchivedAppointment> findByDoctorId(@Param("doctorId") Long doctorId);
+
+    @Query("SELECT a FROM ArchivedAppointment a JOIN FETCH a.doctor JOIN FETCH a.patient p WHERE p.user.id = :userId")
+    List<ArchivedAppointment> findByUserId(@Param("userId") Long userId);
+
+    /**
+     * Moves one batch of finished appointments that started before the cutoff
+     * into the archive. Delete and insert are a single statement, so a row is
+     * never in both tables or in neither. SKIP LOCKED keeps the archiver off
+     * rows a request is currently updating and lets several nodes run it.
+     * The query space keeps Hibernate from clearing the whole second-level
+     * cache after a native update, as it otherwise must.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "appointments"))
+    @Query(value = "WITH moved AS (" +
+            "DELETE FROM appointments WHERE id IN (" +
+            "SELECT id FROM appointments WHERE status IN ('COMPLETED', 'CANCELLED') " +
+            "AND appointment_date_time < :cutoff ORDER BY appointment_date_time LIMIT :batchSize FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, doctor_id, patient_id, appointment_date_time, end_time, status, notes, reason, " +
+            "created_at, updated_at, version) " +
+            "INSERT INTO appointments_archive (id, doctor_id, patient_id, appointment_date_time, end_time, status, " +
+            "notes, reason, created_at, updated_at, version, archived_at) " +
+            "SELECT id, doctor_id, patient_id, appointment_date_time, end_time, status, notes, reason, " +
+            "created_at, updated_at, version, now() FROM moved", nativeQuery = true)
+    int archiveBatch(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+}
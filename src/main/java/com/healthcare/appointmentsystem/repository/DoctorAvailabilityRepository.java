@@ -1,8 +1,13 @@
 package com.healthcare.appointmentsystem.repository;
 
+import com.healthcare.appointmentsystem.cache.CacheRegions;
+import com.healthcare.appointmentsystem.dto.VersionStampDTO;
 import com.healthcare.appointmentsystem.model.DoctorAvailability;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.DayOfWeek;
@@ -13,13 +18,30 @@ public interface DoctorAvailabilityRepository extends JpaRepository<DoctorAvaila
     List<DoctorAvailability> findDoctorById(Long doctorId);
     List<DoctorAvailability> findDoctorByIdAndDayOfWeek(Long doctorId, DayOfWeek dayOfWeek);
     List<DoctorAvailability> findDoctorByIdAndSpecificDate(Long doctorId, LocalDate date);
+    List<DoctorAvailability> findByDoctorId(Long doctorId);
 
     // Find all availabilities for a specific date (combining specific date and day of week)
     @Query("SELECT a FROM DoctorAvailability a WHERE a.doctor.id = :doctorId AND " +
             "(a.specificDate = :date OR (a.specificDate IS NULL AND a.dayOfWeek = :dayOfWeek))")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.AVAILABILITIES_FOR_DATE)
+    })
     List<DoctorAvailability> findAvailabilitiesForDate(
             @Param("doctorId") Long doctorId,
             @Param("date") LocalDate date,
             @Param("dayOfWeek") DayOfWeek dayOfWeek);
 
+    // Every doctor's availabilities that can apply on a date, with doctor and user in the same query
+    @Query("SELECT a FROM DoctorAvailability a JOIN FETCH a.doctor d LEFT JOIN FETCH d.user WHERE " +
+            "a.specificDate = :date OR (a.specificDate IS NULL AND a.dayOfWeek = :dayOfWeek)")
+    List<DoctorAvailability> findAllAvailabilitiesForDate(
+            @Param("date") LocalDate date,
+            @Param("dayOfWeek") DayOfWeek dayOfWeek);
+
+    // Version fingerprint of all availabilities of a doctor, used as ETag source
+    @Query("SELECT new com.healthcare.appointmentsystem.dto.VersionStampDTO(COUNT(a), SUM(a.version), SUM(a.id)) " +
+            "FROM DoctorAvailability a WHERE a.doctor.id = :doctorId")
+    VersionStampDTO findVersionStampByDoctorId(@Param("doctorId") Long doctorId);
+
 }
@@ -1,7 +1,13 @@
 package com.healthcare.appointmentsystem.repository;
 
+import com.healthcare.appointmentsystem.cache.CacheRegions;
+import com.healthcare.appointmentsystem.dto.VersionStampDTO;
 import com.healthcare.appointmentsystem.model.Doctor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,6 +15,10 @@ import java.util.Optional;
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     Optional<Doctor> findDoctorByLicenseNumber(String licenseNumber);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.DOCTORS_BY_SPECIALIZATION)
+    })
     List<Doctor> findDoctorBySpecialization(String specialization);
     List<Doctor> findDoctorByFirstName(String firstName);
     List<Doctor> findDoctorByLastName(String lastName);
@@ -17,5 +27,16 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     boolean existsBySpecialization(String specialization);
     boolean existsByFirstName(String firstName);
     boolean existsByLastName(String lastName);
+    Optional<Doctor> findByUserId(Long userId);
+
+    // Version fingerprint of the doctor directory, including the linked user (email)
+    @Query("SELECT new com.healthcare.appointmentsystem.dto.VersionStampDTO(COUNT(d), " +
+            "SUM(d.version + COALESCE(u.version, 0)), SUM(d.id)) FROM Doctor d LEFT JOIN d.user u")
+    VersionStampDTO findDirectoryVersionStamp();
+
+    // Version fingerprint of the doctor rows alone; logins bump the user row and must not count
+    @Query("SELECT new com.healthcare.appointmentsystem.dto.VersionStampDTO(COUNT(d), " +
+            "SUM(d.version), SUM(d.id)) FROM Doctor d")
+    VersionStampDTO findDoctorVersionStamp();
 
 }
@@ -0,0 +1,43 @@
+package com.healthcare.appointmentsystem.repository;
+
+import com.healthcare.appointmentsystem.model.IdempotencyRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Removes the key's row only if nobody can still use it: it expired, or
+     * it is a claim that never completed within its lease.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND (r.expiresAt < :now " +
+            "OR (r.statusCode IS NULL AND r.createdAt < :leaseCutoff))")
+    int deleteReclaimable(@Param("id") String id, @Param("now") LocalDateTime now,
+                          @Param("leaseCutoff") LocalDateTime leaseCutoff);
+
+    /**
+     * Claims the key with a plain insert. Returns 0 when a row already
+     * exists, so two instances can never both own a key. The query space
+     * keeps Hibernate from clearing the whole second-level cache.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "INSERT INTO idempotency_keys (id, request_hash, created_at, expires_at) " +
+            "VALUES (:id, :requestHash, :now, :expiresAt) ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+    int insertClaim(@Param("id") String id, @Param("requestHash") String requestHash,
+                    @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+}
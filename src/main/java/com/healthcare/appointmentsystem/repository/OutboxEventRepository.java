@@ -0,0 +1,31 @@
+package com.healthcare.appointmentsystem.repository;
+
+import com.healthcare.appointmentsystem.model.OutboxEvent;
+import com.healthcare.appointmentsystem.model.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Lock the next batch of pending events that are due. SKIP LOCKED lets
+     * several relay instances poll concurrently without blocking on each
+     * other's rows; events backing off after a failure are left out until
+     * their next attempt time.
+     */
+    @Query(value = "SELECT * FROM appointment_outbox WHERE status = 'PENDING' " +
+            "AND (next_attempt_at IS NULL OR next_attempt_at <= :now) " +
+            "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextPendingBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    long countByStatus(OutboxStatus status);
+
+    Optional<OutboxEvent> findFirstByStatusOrderByIdAsc(OutboxStatus status);
+}
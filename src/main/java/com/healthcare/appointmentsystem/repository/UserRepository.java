@@ -1,8 +1,14 @@
 package com.healthcare.appointmentsystem.repository;
 
 import com.healthcare.appointmentsystem.model.User;
+import com.healthcare.appointmentsystem.security.UserStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -11,4 +17,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
 
+    @Query("SELECT new com.healthcare.appointmentsystem.security.UserStatus(u.enabled, u.accountNonLocked, u.lockedUntil) " +
+            "FROM User u WHERE u.username = :username")
+    Optional<UserStatus> findStatusByUsername(@Param("username") String username);
+
+    // Bumps the version so a concurrent profile save cannot silently unlock the account
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.accountNonLocked = false, u.lockedUntil = :until, u.version = u.version + 1 WHERE u.username = :username")
+    int lockUntil(@Param("username") String username, @Param("until") LocalDateTime until);
+
 }
@@ -0,0 +1,25 @@
+package com.healthcare.appointmentsystem.repository;
+
+import com.healthcare.appointmentsystem.model.WaitlistEntry;
+import com.healthcare.appointmentsystem.model.WaitlistStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    List<WaitlistEntry> findByStatus(WaitlistStatus status);
+
+    List<WaitlistEntry> findByPatientIdOrderByCreatedAtDesc(Long patientId);
+
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.status = :status AND w.offeredAt < :before")
+    List<WaitlistEntry> findOffersMadeBefore(@Param("status") WaitlistStatus status, @Param("before") LocalDateTime before);
+
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.status = :status AND w.windowEnd <= :now")
+    List<WaitlistEntry> findWindowsEndedBy(@Param("status") WaitlistStatus status, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,20 @@
+package com.healthcare.appointmentsystem.schedule;
+
+import com.healthcare.appointmentsystem.util.TimeCodec;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Projection of an appointment reduced to what occupancy needs, bounds in epoch minutes
+@Getter
+public class BookedInterval {
+    private final Long doctorId;
+    private final long startMinute;
+    private final long endMinute;
+
+    public BookedInterval(Long doctorId, LocalDateTime startTime, LocalDateTime endTime) {
+        this.doctorId = doctorId;
+        this.startMinute = TimeCodec.toEpochMinute(startTime);
+        this.endMinute = TimeCodec.toEpochMinute(endTime);
+    }
+}
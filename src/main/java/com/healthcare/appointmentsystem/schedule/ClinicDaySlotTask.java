@@ -0,0 +1,121 @@
+package com.healthcare.appointmentsystem.schedule;
+
+import com.healthcare.appointmentsystem.dto.TimeSlotDTO;
+import com.healthcare.appointmentsystem.model.Doctor;
+import com.healthcare.appointmentsystem.model.DoctorAvailability;
+import com.healthcare.appointmentsystem.util.TimeCodec;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes the free slots of many doctors on one day.
+ *
+ * Input is already bulk-loaded and grouped by doctor, so the task is pure
+ * CPU work: the doctor list is split in halves until a chunk is small
+ * enough, each chunk resolves windows and builds a bitmap per doctor, and
+ * the partial results are concatenated on the way back up.
+ */
+public class ClinicDaySlotTask extends RecursiveTask<List<TimeSlotDTO>> {
+
+    private final List<Doctor> doctors;
+    private final int from;
+    private final int to;
+    private final LocalDate date;
+    private final Map<Long, List<DoctorAvailability>> rulesByDoctor;
+    private final Map<Long, List<BookedInterval>> bookingsByDoctor;
+    private final int threshold;
+
+    public ClinicDaySlotTask(List<Doctor> doctors, LocalDate date,
+                             Map<Long, List<DoctorAvailability>> rulesByDoctor,
+                             Map<Long, List<BookedInterval>> bookingsByDoctor, int threshold) {
+        this(doctors, 0, doctors.size(), date, rulesByDoctor, bookingsByDoctor, Math.max(1, threshold));
+    }
+
+    private ClinicDaySlotTask(List<Doctor> doctors, int from, int to, LocalDate date,
+                              Map<Long, List<DoctorAvailability>> rulesByDoctor,
+                              Map<Long, List<BookedInterval>> bookingsByDoctor, int threshold) {
+        this.doctors = doctors;
+        this.from = from;
+        this.to = to;
+        this.date = date;
+        this.rulesByDoctor = rulesByDoctor;
+        this.bookingsByDoctor = bookingsByDoctor;
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected List<TimeSlotDTO> compute() {
+        if (to - from <= threshold) {
+            List<TimeSlotDTO> slots = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                computeDoctor(doctors.get(i), slots);
+            }
+            return slots;
+        }
+        int middle = (from + to) >>> 1;
+        ClinicDaySlotTask left = new ClinicDaySlotTask(doctors, from, middle, date, rulesByDoctor, bookingsByDoctor, threshold);
+        ClinicDaySlotTask right = new ClinicDaySlotTask(doctors, middle, to, date, rulesByDoctor, bookingsByDoctor, threshold);
+        left.fork();
+        List<TimeSlotDTO> slots = right.compute();
+        List<TimeSlotDTO> leftSlots = left.join();
+        List<TimeSlotDTO> merged = new ArrayList<>(leftSlots.size() + slots.size());
+        merged.addAll(leftSlots);
+        merged.addAll(slots);
+        return merged;
+    }
+
+    private void computeDoctor(Doctor doctor, List<TimeSlotDTO> out) {
+        List<ScheduleWindow> windows = EffectiveSchedule.resolve(
+                rulesByDoctor.getOrDefault(doctor.getId(), List.of()), date);
+        if (windows.isEmpty()) {
+            return;
+        }
+        long epochDay = date.toEpochDay();
+        long dayStart = TimeCodec.toEpochMinute(epochDay, 0);
+        DayOccupancy occupancy = new DayOccupancy();
+        for (ScheduleWindow window : windows) {
+            occupancy.markAvailable(window.getStartMinute(), window.getEndMinute());
+        }
+        for (BookedInterval booking : bookingsByDoctor.getOrDefault(doctor.getId(), List.of())) {
+            // Minutes relative to this day, the bitmap clamps anything outside it
+            occupancy.book((int) Math.max(booking.getStartMinute() - dayStart, 0),
+                    (int) Math.min(booking.getEndMinute() - dayStart, DayOccupancy.MINUTES_PER_DAY));
+        }
+        collectFreeSlots(doctor, date, windows, occupancy, 0, out);
+    }
+
+    /**
+     * Free slots starting on each window's slot boundaries. A length of 0 uses
+     * the window's slot duration; a longer length finds room for longer
+     * appointments that must still end inside the window.
+     * Shared with the single-doctor slot endpoint so both produce the same slots.
+     */
+    public static void collectFreeSlots(Doctor doctor, LocalDate date, List<ScheduleWindow> windows,
+                                        DayOccupancy occupancy, int length, List<TimeSlotDTO> out) {
+        String doctorName = doctor.getFirstName() + " " + doctor.getLastName();
+        long epochDay = date.toEpochDay();
+        for (ScheduleWindow window : windows) {
+            int slotDuration = window.getSlotDuration();
+            int slotLength = length > 0 ? length : slotDuration;
+            int windowEnd = window.getEndMinute();
+            for (int start = window.getStartMinute();
+                 slotDuration > 0 && start + slotLength <= windowEnd; start += slotDuration) {
+                if (occupancy.isFree(start, start + slotLength)) {
+                    // java.time objects only for slots that make it into the response
+                    long slotStart = TimeCodec.toEpochMinute(epochDay, start);
+                    out.add(TimeSlotDTO.builder()
+                            .startTime(TimeCodec.toLocalDateTime(slotStart))
+                            .endTime(TimeCodec.toLocalDateTime(slotStart + slotLength))
+                            .available(true)
+                            .doctorId(doctor.getId())
+                            .doctorName(doctorName)
+                            .build());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.healthcare.appointmentsystem.schedule;
+
+import java.util.Arrays;
+
+/**
+ * Minute-granular occupancy of one doctor on one day.
+ *
+ * Two 1440-bit maps packed into long words: one bit per minute the doctor is
+ * working, one bit per minute that is already booked. Checking whether an
+ * interval is free is a handful of masked word comparisons instead of
+ * comparing appointment timestamps.
+ */
+public class DayOccupancy {
+
+    public static final int MINUTES_PER_DAY = 1440;
+    private static final int WORDS = (MINUTES_PER_DAY + 63) / 64;
+
+    private final long[] available = new long[WORDS];
+    private final long[] booked = new long[WORDS];
+
+    public synchronized void markAvailable(int fromMinute, int toMinute) {
+        setRange(available, clamp(fromMinute), clamp(toMinute));
+    }
+
+    public synchronized void book(int fromMinute, int toMinute) {
+        setRange(booked, clamp(fromMinute), clamp(toMinute));
+    }
+
+    public synchronized void release(int fromMinute, int toMinute) {
+        clearRange(booked, clamp(fromMinute), clamp(toMinute));
+    }
+
+    // The doctor works the whole interval and no minute of it is booked
+    public synchronized boolean isFree(int fromMinute, int toMinute) {
+        int from = clamp(fromMinute);
+        int to = clamp(toMinute);
+        return from < to && allSet(available, from, to) && !anySet(booked, from, to);
+    }
+
+    // At least one minute of the interval is booked
+    public synchronized boolean isBooked(int fromMinute, int toMinute) {
+        return anySet(booked, clamp(fromMinute), clamp(toMinute));
+    }
+
+    /**
+     * First start in [fromMinute, toMinute - length], stepping by step minutes,
+     * whose interval of the given length is free. Returns -1 when none is.
+     */
+    public synchronized int firstFree(int fromMinute, int toMinute, int length, int step) {
+        if (length <= 0 || step <= 0) {
+            return -1;
+        }
+        int to = clamp(toMinute);
+        for (int start = Math.max(0, fromMinute); start + length <= to; start += step) {
+            if (allSet(available, start, start + length) && !anySet(booked, start, start + length)) {
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    public synchronized void clearBookings() {
+        Arrays.fill(booked, 0L);
+    }
+
+    private static int clamp(int minute) {
+        return Math.max(0, Math.min(MINUTES_PER_DAY, minute));
+    }
+
+    // Mask of the bits [from, to) within a single word, 0 <= from < to <= 64
+    private static long mask(int from, int to) {
+        long upper = to == 64 ? -1L : (1L << to) - 1;
+        return upper & (-1L << from);
+    }
+
+    private static void setRange(long[] words, int from, int to) {
+        for (int i = from; i < to; ) {
+            int word = i >>> 6;
+            int end = Math.min(to, (word + 1) << 6);
+            words[word] |= mask(i & 63, end - (word << 6));
+            i = end;
+        }
+    }
+
+    private static void clearRange(long[] words, int from, int to) {
+        for (int i = from; i < to; ) {
+            int word = i >>> 6;
+            int end = Math.min(to, (word + 1) << 6);
+            words[word] &= ~mask(i & 63, end - (word << 6));
+            i = end;
+        }
+    }
+
+    private static boolean allSet(long[] words, int from, int to) {
+        for (int i = from; i < to; ) {
+            int word = i >>> 6;
+            int end = Math.min(to, (word + 1) << 6);
+            long m = mask(i & 63, end - (word << 6));
+            if ((words[word] & m) != m) {
+                return false;
+            }
+            i = end;
+        }
+        return true;
+    }
+
+    private static boolean anySet(long[] words, int from, int to) {
+        for (int i = from; i < to; ) {
+            int word = i >>> 6;
+            int end = Math.min(to, (word + 1) << 6);
+            if ((words[word] & mask(i & 63, end - (word << 6))) != 0) {
+                return true;
+            }
+            i = end;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,134 @@
+package com.healthcare.appointmentsystem.schedule;
+
+import com.healthcare.appointmentsystem.event.AvailabilityChangedEvent;
+import com.healthcare.appointmentsystem.model.DoctorAvailability;
+import com.healthcare.appointmentsystem.repository.DoctorAvailabilityRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Materialized view of every doctor's working windows per date.
+ *
+ * Availabilities mix recurring day-of-week rules with specific-date
+ * overrides. The override resolution is done once per doctor over a rolling
+ * horizon and kept in memory, so a slot check is a map lookup instead of a
+ * query. A doctor's schedule is rebuilt when one of their availabilities
+ * changes and the horizon is rolled forward every night.
+ */
+@Component
+public class EffectiveSchedule {
+
+    private final DoctorAvailabilityRepository availabilityRepository;
+    private final int horizonDays;
+    private final ConcurrentHashMap<Long, DoctorSchedule> schedules = new ConcurrentHashMap<>();
+
+    public EffectiveSchedule(DoctorAvailabilityRepository availabilityRepository,
+                             @Value("${app.schedule.horizon-days:60}") int horizonDays) {
+        this.availabilityRepository = availabilityRepository;
+        this.horizonDays = horizonDays;
+    }
+
+    /**
+     * Working windows of a doctor on a date, sorted by start time.
+     * Dates outside the horizon are resolved on the fly.
+     */
+    public List<ScheduleWindow> getWindows(Long doctorId, LocalDate date) {
+        DoctorSchedule schedule = schedules.computeIfAbsent(doctorId, this::build);
+        if (schedule.covers(date)) {
+            return schedule.windows.getOrDefault(date, List.of());
+        }
+        return resolve(schedule.rules, date);
+    }
+
+    // Rebuild only the affected doctor once the change is committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        refresh(event.getDoctorId());
+    }
+
+    public void refresh(Long doctorId) {
+        if (doctorId != null) {
+            schedules.put(doctorId, build(doctorId));
+        }
+    }
+
+    public void evict(Long doctorId) {
+        schedules.remove(doctorId);
+    }
+
+    // Roll the horizon forward for every doctor that is currently materialized
+    @Scheduled(cron = "${app.schedule.refresh-cron:0 5 0 * * *}")
+    public void rollHorizon() {
+        schedules.replaceAll((doctorId, schedule) -> build(doctorId));
+    }
+
+    /**
+     * Resolves the windows that apply on a date: specific-date rows replace
+     * the recurring day-of-week rows, and unavailable rows contribute nothing
+     * (a specific-date row marked unavailable therefore blocks the whole day).
+     */
+    public static List<ScheduleWindow> resolve(List<DoctorAvailability> rules, LocalDate date) {
+        List<DoctorAvailability> overrides = new ArrayList<>();
+        List<DoctorAvailability> recurring = new ArrayList<>();
+        for (DoctorAvailability rule : rules) {
+            if (rule.getSpecificDate() != null) {
+                if (rule.getSpecificDate().equals(date)) {
+                    overrides.add(rule);
+                }
+            } else if (rule.getDayOfWeek() == date.getDayOfWeek()) {
+                recurring.add(rule);
+            }
+        }
+        List<ScheduleWindow> windows = new ArrayList<>();
+        for (DoctorAvailability rule : overrides.isEmpty() ? recurring : overrides) {
+            if (rule.isAvailable()) {
+                windows.add(new ScheduleWindow(rule.getId(), rule.getStartTime(), rule.getEndTime(), rule.getSlotDuration()));
+            }
+        }
+        windows.sort(Comparator.comparing(ScheduleWindow::getStartTime));
+        return windows;
+    }
+
+    private DoctorSchedule build(Long doctorId) {
+        List<DoctorAvailability> rules = availabilityRepository.findByDoctorId(doctorId);
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(horizonDays);
+        Map<LocalDate, List<ScheduleWindow>> windows = new HashMap<>();
+        for (LocalDate date = from; date.isBefore(to); date = date.plusDays(1)) {
+            List<ScheduleWindow> resolved = resolve(rules, date);
+            if (!resolved.isEmpty()) {
+                windows.put(date, List.copyOf(resolved));
+            }
+        }
+        return new DoctorSchedule(List.copyOf(rules), from, to, Map.copyOf(windows));
+    }
+
+    private static final class DoctorSchedule {
+        private final List<DoctorAvailability> rules;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final Map<LocalDate, List<ScheduleWindow>> windows;
+
+        private DoctorSchedule(List<DoctorAvailability> rules, LocalDate from, LocalDate to,
+                               Map<LocalDate, List<ScheduleWindow>> windows) {
+            this.rules = rules;
+            this.from = from;
+            this.to = to;
+            this.windows = windows;
+        }
+
+        private boolean covers(LocalDate date) {
+            return !date.isBefore(from) && date.isBefore(to);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.healthcare.appointmentsystem.schedule;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Bounds are epoch minutes, see TimeCodec
+@Getter
+@AllArgsConstructor
+public class FreeSlot {
+    private final Long doctorId;
+    private final long startMinute;
+    private final long endMinute;
+}
@@ -0,0 +1,93 @@
+package com.healthcare.appointmentsystem.schedule;
+
+import com.healthcare.appointmentsystem.util.TimeCodec;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Lazily walks one doctor's free slots in chronological order, day by day
+ * and window by window, up to a last day. Nothing beyond the current slot
+ * is computed until advance() is called again.
+ */
+public class FreeSlotIterator {
+
+    private final Long doctorId;
+    private final EffectiveSchedule effectiveSchedule;
+    private final OccupancyStore occupancyStore;
+    private final long notBeforeMinute;
+    private final long lastDay;
+
+    private long day;
+    private List<ScheduleWindow> windows;
+    private DayOccupancy occupancy;
+    private int windowIndex;
+    private int nextMinute;
+    private FreeSlot current;
+
+    // Bounds are epoch minutes and epoch days, see TimeCodec
+    public FreeSlotIterator(Long doctorId, EffectiveSchedule effectiveSchedule, OccupancyStore occupancyStore,
+                            long notBeforeMinute, long lastDay) {
+        this.doctorId = doctorId;
+        this.effectiveSchedule = effectiveSchedule;
+        this.occupancyStore = occupancyStore;
+        this.notBeforeMinute = notBeforeMinute;
+        this.lastDay = lastDay;
+        this.day = TimeCodec.epochDay(notBeforeMinute);
+        this.nextMinute = -1;
+    }
+
+    // Slot the iterator is positioned on, null when exhausted or not yet advanced
+    public FreeSlot current() {
+        return current;
+    }
+
+    public FreeSlot advance() {
+        current = findNext();
+        return current;
+    }
+
+    private FreeSlot findNext() {
+        while (day <= lastDay) {
+            if (windows == null) {
+                windows = effectiveSchedule.getWindows(doctorId, LocalDate.ofEpochDay(day));
+                windowIndex = 0;
+                nextMinute = -1;
+            }
+            while (windowIndex < windows.size()) {
+                ScheduleWindow window = windows.get(windowIndex);
+                int step = window.getSlotDuration();
+                int from = Math.max(nextMinute, alignedStart(window.getStartMinute(), step));
+                if (step > 0) {
+                    if (occupancy == null) {
+                        occupancy = occupancyStore.get(doctorId, day);
+                    }
+                    int found = occupancy.firstFree(from, window.getEndMinute(), step, step);
+                    if (found >= 0) {
+                        nextMinute = found + step;
+                        long start = TimeCodec.toEpochMinute(day, found);
+                        return new FreeSlot(doctorId, start, start + step);
+                    }
+                }
+                windowIndex++;
+                nextMinute = -1;
+            }
+            day++;
+            windows = null;
+            occupancy = null;
+        }
+        return null;
+    }
+
+    // First slot boundary of the window that is not in the past
+    private int alignedStart(int windowStart, int step) {
+        if (day != TimeCodec.epochDay(notBeforeMinute) || step <= 0) {
+            return windowStart;
+        }
+        int now = TimeCodec.minuteOfDay(notBeforeMinute);
+        if (now <= windowStart) {
+            return windowStart;
+        }
+        return windowStart + ((now - windowStart + step - 1) / step) * step;
+    }
+}
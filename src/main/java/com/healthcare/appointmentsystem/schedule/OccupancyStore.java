@@ -0,0 +1,180 @@
+package com.healthcare.appointmentsystem.schedule;
+
+import com.healthcare.appointmentsystem.event.AppointmentChangedEvent;
+import com.healthcare.appointmentsystem.event.AvailabilityChangedEvent;
+import com.healthcare.appointmentsystem.model.Appointment;
+import com.healthcare.appointmentsystem.model.AppointmentStatus;
+import com.healthcare.appointmentsystem.repository.AppointmentRepository;
+import com.healthcare.appointmentsystem.util.TimeCodec;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-doctor, per-day occupancy bitmaps.
+ *
+ * A day is loaded on first use from the effective schedule and that day's
+ * appointments, then kept up to date from appointment events: bookings set
+ * bits directly. Cancellations and deletions drop the affected days and let
+ * them reload, since other bookings (e.g. group sessions or a re-booked
+ * slot) may still cover the same minutes. Updates carry no previous time,
+ * so they drop all of the doctor's cached days.
+ *
+ * A day loaded while a booking commits can miss that booking, so the
+ * bitmaps serve listings and quick rejections; bookings are confirmed
+ * against the database under the doctor's booking lock.
+ */
+@Component
+public class OccupancyStore {
+
+    private final EffectiveSchedule effectiveSchedule;
+    private final AppointmentRepository appointmentRepository;
+    // Key packs doctor id and epoch day into one long, see key()
+    private final ConcurrentHashMap<Long, DayOccupancy> days = new ConcurrentHashMap<>();
+
+    public OccupancyStore(EffectiveSchedule effectiveSchedule, AppointmentRepository appointmentRepository) {
+        this.effectiveSchedule = effectiveSchedule;
+        this.appointmentRepository = appointmentRepository;
+    }
+
+    public DayOccupancy get(Long doctorId, LocalDate date) {
+        return get(doctorId, date.toEpochDay());
+    }
+
+    public DayOccupancy get(Long doctorId, long epochDay) {
+        return days.computeIfAbsent(key(doctorId, epochDay), k -> load(doctorId, epochDay));
+    }
+
+    public boolean isFree(Long doctorId, LocalDateTime start, LocalDateTime end) {
+        return isFree(doctorId, TimeCodec.toEpochMinute(start), TimeCodec.toEpochMinute(end));
+    }
+
+    // True when the doctor works the whole interval (epoch minutes) and nothing is booked in it
+    public boolean isFree(Long doctorId, long startMinute, long endMinute) {
+        long day = TimeCodec.epochDay(startMinute);
+        // Working windows never cross midnight, so neither can a free interval
+        if (endMinute > TimeCodec.toEpochMinute(day + 1, 0)) {
+            return false;
+        }
+        return get(doctorId, day).isFree(TimeCodec.minuteOfDay(startMinute), endOfDay(day, endMinute));
+    }
+
+    public boolean isBooked(Long doctorId, LocalDateTime start, LocalDateTime end) {
+        return isBooked(doctorId, TimeCodec.toEpochMinute(start), TimeCodec.toEpochMinute(end));
+    }
+
+    // True when some minute of the interval (epoch minutes) is already booked
+    public boolean isBooked(Long doctorId, long startMinute, long endMinute) {
+        long day = TimeCodec.epochDay(startMinute);
+        if (get(doctorId, day).isBooked(TimeCodec.minuteOfDay(startMinute), endOfDay(day, endMinute))) {
+            return true;
+        }
+        // Spill over into the next day for appointments crossing midnight
+        long endDay = TimeCodec.epochDay(endMinute);
+        return endDay > day && get(doctorId, endDay).isBooked(0, TimeCodec.minuteOfDay(endMinute));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.getDoctorId() == null || event.getAppointmentDateTime() == null) {
+            return;
+        }
+        switch (event.getChangeType()) {
+            case CREATED -> book(event);
+            case DELETED -> {
+                // A cancelled appointment no longer occupied its minutes
+                if (event.getStatus() != AppointmentStatus.CANCELLED) {
+                    evictDays(event);
+                }
+            }
+            case STATUS_CHANGED -> {
+                if (event.getStatus() == AppointmentStatus.CANCELLED) {
+                    evictDays(event);
+                }
+            }
+            case UPDATED -> evict(event.getDoctorId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        evict(event.getDoctorId());
+    }
+
+    public void evict(Long doctorId) {
+        if (doctorId != null) {
+            days.keySet().removeIf(k -> (k >>> 21) == doctorId);
+        }
+    }
+
+    // Past days are never checked again
+    @Scheduled(cron = "${app.schedule.refresh-cron:0 5 0 * * *}")
+    public void evictPastDays() {
+        long today = LocalDate.now().toEpochDay();
+        days.keySet().removeIf(k -> (k & 0x1FFFFF) < today);
+    }
+
+    private void book(AppointmentChangedEvent event) {
+        long start = TimeCodec.toEpochMinute(event.getAppointmentDateTime());
+        long end = event.getEndDateTime() != null ? TimeCodec.toEpochMinute(event.getEndDateTime()) : start;
+        long startDay = TimeCodec.epochDay(start);
+        long endDay = TimeCodec.epochDay(end);
+        // Only touch days that are already loaded, others will load the current state
+        DayOccupancy day = days.get(key(event.getDoctorId(), startDay));
+        if (day != null) {
+            day.book(TimeCodec.minuteOfDay(start), endOfDay(startDay, end));
+        }
+        if (endDay > startDay) {
+            DayOccupancy next = days.get(key(event.getDoctorId(), endDay));
+            if (next != null) {
+                next.book(0, TimeCodec.minuteOfDay(end));
+            }
+        }
+    }
+
+    // Runs after commit, so the days reload without the released appointment
+    private void evictDays(AppointmentChangedEvent event) {
+        long start = TimeCodec.toEpochMinute(event.getAppointmentDateTime());
+        long end = event.getEndDateTime() != null ? TimeCodec.toEpochMinute(event.getEndDateTime()) : start;
+        for (long day = TimeCodec.epochDay(start); day <= TimeCodec.epochDay(end); day++) {
+            days.remove(key(event.getDoctorId(), day));
+        }
+    }
+
+    private DayOccupancy load(Long doctorId, long epochDay) {
+        DayOccupancy day = new DayOccupancy();
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        for (ScheduleWindow window : effectiveSchedule.getWindows(doctorId, date)) {
+            day.markAvailable(window.getStartMinute(), window.getEndMinute());
+        }
+        // Include the previous day so appointments crossing midnight are counted
+        for (Appointment appointment : appointmentRepository.findAppointmentsByDoctorIdAndDate(
+                doctorId, date.minusDays(1).atStartOfDay(), date.plusDays(1).atStartOfDay())) {
+            if (appointment.getStatus() == AppointmentStatus.CANCELLED || appointment.getEndDateTime() == null) {
+                continue;
+            }
+            long start = TimeCodec.toEpochMinute(appointment.getAppointmentDateTime());
+            long end = TimeCodec.toEpochMinute(appointment.getEndDateTime());
+            if (TimeCodec.epochDay(start) == epochDay) {
+                day.book(TimeCodec.minuteOfDay(start), endOfDay(epochDay, end));
+            } else if (TimeCodec.epochDay(end) == epochDay) {
+                day.book(0, TimeCodec.minuteOfDay(end));
+            }
+        }
+        return day;
+    }
+
+    // Doctor id in the upper bits, epoch day (21 bits, good until year 7700) in the lower bits
+    private static long key(Long doctorId, long epochDay) {
+        return (doctorId << 21) | epochDay;
+    }
+
+    // End minute relative to the given day, capped at midnight
+    private static int endOfDay(long epochDay, long endMinute) {
+        return (int) Math.min(endMinute - TimeCodec.toEpochMinute(epochDay, 0), DayOccupancy.MINUTES_PER_DAY);
+    }
+}
@@ -0,0 +1,38 @@
+package com.healthcare.appointmentsystem.schedule;
+
+import com.healthcare.appointmentsystem.util.TimeCodec;
+import lombok.Getter;
+
+import java.time.LocalTime;
+
+/**
+ * A resolved working window of a doctor on a concrete date.
+ * Bounds are also kept as minutes of the day for the slot engines.
+ */
+@Getter
+public class ScheduleWindow {
+    private final Long availabilityId;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final int slotDuration;
+    private final short startMinute;
+    private final short endMinute;
+
+    public ScheduleWindow(Long availabilityId, LocalTime startTime, LocalTime endTime, int slotDuration) {
+        this.availabilityId = availabilityId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.slotDuration = slotDuration;
+        this.startMinute = TimeCodec.toMinuteOfDay(startTime);
+        this.endMinute = TimeCodec.toMinuteOfDay(endTime);
+    }
+
+    // Half-open: an appointment can start at the window start but not at its end
+    public boolean contains(LocalTime time) {
+        return contains(TimeCodec.toMinuteOfDay(time));
+    }
+
+    public boolean contains(int minuteOfDay) {
+        return minuteOfDay >= startMinute && minuteOfDay < endMinute;
+    }
+}
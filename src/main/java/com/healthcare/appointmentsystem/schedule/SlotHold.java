@@ -0,0 +1,20 @@
+package com.healthcare.appointmentsystem.schedule;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// A short-lived claim on a doctor's interval, bounds in epoch minutes
+@Getter
+@AllArgsConstructor
+public class SlotHold {
+    private final String holdId;
+    private final Long doctorId;
+    private final Long patientId;
+    private final long startMinute;
+    private final long endMinute;
+    private final long expiresAtMs;
+
+    public boolean isExpired(long nowMs) {
+        return expiresAtMs <= nowMs;
+    }
+}
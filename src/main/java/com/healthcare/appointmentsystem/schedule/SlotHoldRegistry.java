@@ -0,0 +1,183 @@
+package com.healthcare.appointmentsystem.schedule;
+
+import com.healthcare.appointmentsystem.event.AppointmentChangedEvent;
+import com.healthcare.appointmentsystem.event.ChangeType;
+import com.healthcare.appointmentsystem.exception.ConflictException;
+import com.healthcare.appointmentsystem.util.HashedTimerWheel;
+import com.healthcare.appointmentsystem.util.TimeCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived holds on doctors' slots while a patient completes a booking.
+ *
+ * Holds of a doctor live in a skip list keyed by start minute and never
+ * overlap, so "is this interval held" is one floor lookup. Expiry is driven
+ * by a hashed timer wheel; reads also check the deadline so a hold never
+ * outlives its TTL by more than a tick. A hold is dropped when its patient
+ * books an appointment over it. Every placed or removed hold bumps the
+ * doctor's generation, which slot ETags include.
+ */
+@Component
+public class SlotHoldRegistry {
+
+    private final ConcurrentHashMap<String, SlotHold> holds = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, ConcurrentSkipListMap<Long, SlotHold>> holdsByDoctor = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AtomicInteger> holdCountByPatient = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AtomicLong> generationByDoctor = new ConcurrentHashMap<>();
+    private final HashedTimerWheel<String> timerWheel;
+    private final long ttlMs;
+    private final int maxPerPatient;
+
+    public SlotHoldRegistry(@Value("${app.hold.ttl-seconds:300}") long ttlSeconds,
+                            @Value("${app.hold.max-per-patient:2}") int maxPerPatient,
+                            @Value("${app.hold.tick-ms:1000}") long tickMs) {
+        this.ttlMs = ttlSeconds * 1000;
+        this.maxPerPatient = maxPerPatient;
+        this.timerWheel = new HashedTimerWheel<>(tickMs, 512, System.currentTimeMillis());
+    }
+
+    /**
+     * Places a hold for the patient, or refreshes the patient's existing hold
+     * on the same interval. Throws ConflictException when another patient
+     * holds an overlapping interval or the patient has too many holds.
+     */
+    public SlotHold place(Long doctorId, Long patientId, long startMinute, long endMinute) {
+        long now = System.currentTimeMillis();
+        ConcurrentSkipListMap<Long, SlotHold> doctorHolds = holdsByDoctor.computeIfAbsent(doctorId, id -> new ConcurrentSkipListMap<>());
+        SlotHold hold;
+        // Overlap check and insert must not interleave for the same doctor
+        synchronized (doctorHolds) {
+            SlotHold existing = findOverlapping(doctorHolds, startMinute, endMinute, now);
+            boolean refresh = existing != null && existing.getPatientId().equals(patientId)
+                    && existing.getStartMinute() == startMinute && existing.getEndMinute() == endMinute;
+            if (existing != null && !refresh) {
+                throw new ConflictException("This time slot is currently held by another booking");
+            }
+            if (refresh) {
+                remove(existing);
+            } else if (holdCount(patientId).get() >= maxPerPatient) {
+                throw new ConflictException("Too many slots held at once, release one first");
+            }
+            hold = new SlotHold(UUID.randomUUID().toString(), doctorId, patientId, startMinute, endMinute, now + ttlMs);
+            doctorHolds.put(startMinute, hold);
+            holds.put(hold.getHoldId(), hold);
+            holdCount(patientId).incrementAndGet();
+            bumpGeneration(doctorId);
+        }
+        timerWheel.schedule(hold.getHoldId(), hold.getExpiresAtMs());
+        return hold;
+    }
+
+    public Optional<SlotHold> get(String holdId) {
+        SlotHold hold = holds.get(holdId);
+        return hold == null || hold.isExpired(System.currentTimeMillis()) ? Optional.empty() : Optional.of(hold);
+    }
+
+    public boolean release(String holdId) {
+        SlotHold hold = holds.get(holdId);
+        return hold != null && remove(hold);
+    }
+
+    // True when a live hold of another patient overlaps the interval (epoch minutes)
+    public boolean isHeldByOther(Long doctorId, long startMinute, long endMinute, Long patientId) {
+        ConcurrentSkipListMap<Long, SlotHold> doctorHolds = holdsByDoctor.get(doctorId);
+        if (doctorHolds == null || doctorHolds.isEmpty()) {
+            return false;
+        }
+        SlotHold hold = findOverlapping(doctorHolds, startMinute, endMinute, System.currentTimeMillis());
+        return hold != null && !hold.getPatientId().equals(patientId);
+    }
+
+    public int size() {
+        return holds.size();
+    }
+
+    // Changes whenever a hold of the doctor is placed or removed
+    public long generation(Long doctorId) {
+        AtomicLong generation = generationByDoctor.get(doctorId);
+        return generation == null ? 0 : generation.get();
+    }
+
+    // The patient's hold has served its purpose once the booking is committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.getChangeType() != ChangeType.CREATED || event.getDoctorId() == null
+                || event.getAppointmentDateTime() == null || event.getEndDateTime() == null) {
+            return;
+        }
+        ConcurrentSkipListMap<Long, SlotHold> doctorHolds = holdsByDoctor.get(event.getDoctorId());
+        if (doctorHolds == null) {
+            return;
+        }
+        long start = TimeCodec.toEpochMinute(event.getAppointmentDateTime());
+        long end = TimeCodec.toEpochMinute(event.getEndDateTime());
+        for (SlotHold hold : doctorHolds.headMap(end).descendingMap().values()) {
+            if (hold.getEndMinute() <= start) {
+                break;
+            }
+            if (hold.getPatientId().equals(event.getPatientId())) {
+                remove(hold);
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.hold.tick-ms:1000}")
+    public void expire() {
+        long now = System.currentTimeMillis();
+        timerWheel.advance(now, holdId -> {
+            SlotHold hold = holds.get(holdId);
+            if (hold != null && hold.isExpired(now)) {
+                remove(hold);
+            }
+        });
+    }
+
+    // Holds never overlap each other, so only the last one starting before the end can overlap
+    private SlotHold findOverlapping(ConcurrentSkipListMap<Long, SlotHold> doctorHolds, long startMinute, long endMinute, long now) {
+        Map.Entry<Long, SlotHold> entry = doctorHolds.lowerEntry(endMinute);
+        while (entry != null) {
+            SlotHold hold = entry.getValue();
+            if (!hold.isExpired(now)) {
+                return hold.getEndMinute() > startMinute ? hold : null;
+            }
+            // Expired but not swept yet, look at the one before it
+            entry = doctorHolds.lowerEntry(entry.getKey());
+        }
+        return null;
+    }
+
+    private boolean remove(SlotHold hold) {
+        if (!holds.remove(hold.getHoldId(), hold)) {
+            return false;
+        }
+        ConcurrentSkipListMap<Long, SlotHold> doctorHolds = holdsByDoctor.get(hold.getDoctorId());
+        if (doctorHolds != null) {
+            doctorHolds.remove(hold.getStartMinute(), hold);
+        }
+        AtomicInteger count = holdCountByPatient.get(hold.getPatientId());
+        if (count != null) {
+            count.decrementAndGet();
+        }
+        bumpGeneration(hold.getDoctorId());
+        return true;
+    }
+
+    private void bumpGeneration(Long doctorId) {
+        generationByDoctor.computeIfAbsent(doctorId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    private AtomicInteger holdCount(Long patientId) {
+        return holdCountByPatient.computeIfAbsent(patientId, id -> new AtomicInteger());
+    }
+}
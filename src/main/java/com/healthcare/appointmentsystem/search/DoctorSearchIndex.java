@@ -0,0 +1,387 @@
+package com.healthcare.appointmentsystem.search;
+
+import com.healthcare.appointmentsystem.coordination.InvalidationBus;
+import com.healthcare.appointmentsystem.dto.DoctorSearchResultDTO;
+import com.healthcare.appointmentsystem.dto.VersionStampDTO;
+import com.healthcare.appointmentsystem.event.ChangeType;
+import com.healthcare.appointmentsystem.event.DoctorChangedEvent;
+import com.healthcare.appointmentsystem.model.Doctor;
+import com.healthcare.appointmentsystem.repository.DoctorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory typeahead index over the doctor directory.
+ *
+ * Names, specialization, qualification and office location are split into
+ * normalized tokens (lower case, accents stripped). A sorted map from token
+ * to doctors answers exact and prefix lookups; a trigram index over the
+ * token vocabulary finds tokens similar to a misspelled term. Every query
+ * term has to match some field of a doctor; a doctor's score is the sum
+ * of the best match per term, weighted by the field it matched in.
+ *
+ * Changes are applied per doctor after commit and announced to the other
+ * nodes. The index also compares itself against the version stamp of the
+ * doctor rows periodically and rebuilds when they differ, which picks up
+ * rows written outside the service and missed messages. The linked user
+ * row is left out: nothing from it is indexed and every login bumps it.
+ */
+@Component
+public class DoctorSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoctorSearchIndex.class);
+    private static final String TOPIC = "search:doctors";
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final double PREFIX_SCORE = 0.8;
+    private static final double FUZZY_SCORE = 0.6;
+    private static final int MIN_FUZZY_LENGTH = 3;
+    // Bounds the work of one-letter prefixes
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MAX_TERMS = 8;
+
+    private final DoctorRepository doctorRepository;
+    private final InvalidationBus bus;
+    private final double minSimilarity;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Index index = new Index();
+
+    private volatile long rebuilds;
+    private volatile long lastRebuildMs;
+    private volatile LocalDateTime lastRebuildAt;
+
+    public DoctorSearchIndex(DoctorRepository doctorRepository, InvalidationBus bus,
+                             @Value("${app.search.min-similarity:0.45}") double minSimilarity) {
+        this.doctorRepository = doctorRepository;
+        this.bus = bus;
+        this.minSimilarity = minSimilarity;
+        bus.subscribe(TOPIC, message -> reindex(Long.valueOf(message)));
+    }
+
+    public List<DoctorSearchResultDTO> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return index.search(terms.size() > MAX_TERMS ? terms.subList(0, MAX_TERMS) : terms, limit, minSimilarity);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    // Runs after commit, so the doctor is read in its committed state
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorChanged(DoctorChangedEvent event) {
+        if (event.getDoctorId() == null) {
+            return;
+        }
+        if (event.getChangeType() == ChangeType.DELETED) {
+            remove(event.getDoctorId());
+        } else {
+            reindex(event.getDoctorId());
+        }
+        bus.publish(TOPIC, event.getDoctorId().toString());
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.resync-ms:60000}")
+    public void resync() {
+        VersionStampDTO stamp = doctorRepository.findDoctorVersionStamp();
+        if (!index.matches(stamp)) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        Index rebuilt = new Index();
+        for (Doctor doctor : doctorRepository.findAll()) {
+            rebuilt.put(IndexedDoctor.of(doctor));
+        }
+        lock.writeLock().lock();
+        try {
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        rebuilds++;
+        lastRebuildMs = System.currentTimeMillis() - started;
+        lastRebuildAt = LocalDateTime.now();
+        logger.info("Indexed {} doctors for search in {} ms", rebuilt.doctors.size(), lastRebuildMs);
+    }
+
+    // Reads the doctor again, or drops it when it no longer exists
+    private void reindex(Long doctorId) {
+        Doctor doctor = doctorRepository.findById(doctorId).orElse(null);
+        if (doctor == null) {
+            remove(doctorId);
+            return;
+        }
+        IndexedDoctor entry = IndexedDoctor.of(doctor);
+        lock.writeLock().lock();
+        try {
+            index.put(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long doctorId) {
+        lock.writeLock().lock();
+        try {
+            index.remove(doctorId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            metrics.put("doctors", index.doctors.size());
+            metrics.put("tokens", index.postings.size());
+            metrics.put("trigrams", index.trigrams.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+        metrics.put("rebuilds", rebuilds);
+        metrics.put("lastRebuildMs", lastRebuildMs);
+        metrics.put("lastRebuildAt", lastRebuildAt);
+        return metrics;
+    }
+
+    // Lower-cased, accent-free tokens in order of appearance, without duplicates
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    // Padded like pg_trgm, so short tokens and word starts get trigrams too
+    static Set<String> trigrams(String token) {
+        String padded = "  " + token + " ";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private enum Field {
+        NAME(3), SPECIALIZATION(2), QUALIFICATION(1), LOCATION(1);
+
+        private final int weight;
+
+        Field(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final class IndexedDoctor {
+        private final Long id;
+        private final String firstName;
+        private final String lastName;
+        private final String specialization;
+        private final String officeLocation;
+        // Same sum the doctor version stamp takes for this row
+        private final long version;
+        // Token to the weight of the best field it appears in
+        private final Map<String, Integer> tokens = new HashMap<>();
+
+        private IndexedDoctor(Doctor doctor) {
+            this.id = doctor.getId();
+            this.firstName = doctor.getFirstName();
+            this.lastName = doctor.getLastName();
+            this.specialization = doctor.getSpecialization();
+            this.officeLocation = doctor.getOfficeLocation();
+            this.version = doctor.getVersion() != null ? doctor.getVersion() : 0L;
+            add(doctor.getFirstName(), Field.NAME);
+            add(doctor.getLastName(), Field.NAME);
+            add(doctor.getSpecialization(), Field.SPECIALIZATION);
+            add(doctor.getQualification(), Field.QUALIFICATION);
+            add(doctor.getOfficeLocation(), Field.LOCATION);
+        }
+
+        static IndexedDoctor of(Doctor doctor) {
+            return new IndexedDoctor(doctor);
+        }
+
+        private void add(String text, Field field) {
+            for (String token : tokenize(text)) {
+                tokens.merge(token, field.weight, Math::max);
+            }
+        }
+    }
+
+    // Not thread-safe on its own, guarded by the outer read-write lock
+    private static final class Index {
+        private final Map<Long, IndexedDoctor> doctors = new HashMap<>();
+        // Token to doctor id to field weight, sorted for prefix ranges
+        private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        // Trigram to the tokens of the vocabulary containing it
+        private final Map<String, Set<String>> trigrams = new HashMap<>();
+        private long versionSum;
+        private long idSum;
+
+        void put(IndexedDoctor doctor) {
+            remove(doctor.id);
+            doctors.put(doctor.id, doctor);
+            versionSum += doctor.version;
+            idSum += doctor.id;
+            doctor.tokens.forEach((token, weight) -> postings.computeIfAbsent(token, t -> {
+                for (String gram : trigrams(t)) {
+                    trigrams.computeIfAbsent(gram, g -> new HashSet<>()).add(t);
+                }
+                return new HashMap<>();
+            }).put(doctor.id, weight));
+        }
+
+        void remove(Long doctorId) {
+            IndexedDoctor doctor = doctors.remove(doctorId);
+            if (doctor == null) {
+                return;
+            }
+            versionSum -= doctor.version;
+            idSum -= doctor.id;
+            for (String token : doctor.tokens.keySet()) {
+                Map<Long, Integer> posting = postings.get(token);
+                if (posting == null) {
+                    continue;
+                }
+                posting.remove(doctorId);
+                // Drop tokens nobody uses anymore from the vocabulary
+                if (posting.isEmpty()) {
+                    postings.remove(token);
+                    for (String gram : trigrams(token)) {
+                        Set<String> tokens = trigrams.get(gram);
+                        if (tokens != null && tokens.remove(token) && tokens.isEmpty()) {
+                            trigrams.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+
+        boolean matches(VersionStampDTO stamp) {
+            return stamp.getCount() == doctors.size()
+                    && stamp.getVersionSum() == versionSum
+                    && stamp.getIdSum() == idSum;
+        }
+
+        List<DoctorSearchResultDTO> search(List<String> terms, int limit, double minSimilarity) {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = match(term, minSimilarity);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(e -> doctors.get(e.getKey()).lastName, Comparator.nullsLast(Comparator.naturalOrder())))
+                    .limit(limit)
+                    .map(e -> toResult(doctors.get(e.getKey()), e.getValue()))
+                    .toList();
+        }
+
+        // Best score per doctor for one term: exact beats prefix beats fuzzy
+        private Map<Long, Double> match(String term, double minSimilarity) {
+            Map<Long, Double> scores = new HashMap<>();
+            Map<Long, Integer> exact = postings.get(term);
+            if (exact != null) {
+                accumulate(scores, exact, 1.0);
+            }
+            int expansions = 0;
+            for (Map<Long, Integer> posting : postings.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+                if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                accumulate(scores, posting, PREFIX_SCORE);
+            }
+            if (term.length() >= MIN_FUZZY_LENGTH) {
+                similarTokens(term, minSimilarity).forEach((token, similarity) ->
+                        accumulate(scores, postings.get(token), FUZZY_SCORE * similarity));
+            }
+            return scores;
+        }
+
+        // Tokens whose trigram sets overlap the term's enough (Dice coefficient)
+        private Map<String, Double> similarTokens(String term, double minSimilarity) {
+            Set<String> grams = trigrams(term);
+            Map<String, Integer> shared = new HashMap<>();
+            for (String gram : grams) {
+                for (String token : trigrams.getOrDefault(gram, Set.of())) {
+                    shared.merge(token, 1, Integer::sum);
+                }
+            }
+            Map<String, Double> similar = new HashMap<>();
+            shared.forEach((token, count) -> {
+                double similarity = 2.0 * count / (grams.size() + trigrams(token).size());
+                if (similarity >= minSimilarity && !token.equals(term)) {
+                    similar.put(token, similarity);
+                }
+            });
+            return similar;
+        }
+
+        private static void accumulate(Map<Long, Double> scores, Map<Long, Integer> posting, double score) {
+            posting.forEach((doctorId, weight) -> scores.merge(doctorId, score * weight, Math::max));
+        }
+
+        private static DoctorSearchResultDTO toResult(IndexedDoctor doctor, double score) {
+            return DoctorSearchResultDTO.builder()
+                    .doctorId(doctor.id)
+                    .firstName(doctor.firstName)
+                    .lastName(doctor.lastName)
+                    .specialization(doctor.specialization)
+                    .officeLocation(doctor.officeLocation)
+                    .score(score)
+                    .build();
+        }
+    }
+}
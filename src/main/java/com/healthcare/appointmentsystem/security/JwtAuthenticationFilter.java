@@ -1,5 +1,6 @@
 package com.healthcare.appointmentsystem.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,6 +25,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     @Autowired
     private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UserStatusCache userStatusCache;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -32,11 +36,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = getJwtFromRequest(request);
             
             if (StringUtils.hasText(jwt)) {
-                String username = jwtTokenProvider.getUsernameFromToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // Parsing verifies the signature and expiry once
+                Claims claims = jwtTokenProvider.getAllClaimsFromToken(jwt);
+                UserDetails userDetails = null;
+                if (!jwtTokenProvider.isRevoked(claims)) {
+                    UserPrincipal principal = jwtTokenProvider.toPrincipal(claims);
+                    if (principal != null) {
+                        // Identity comes from the claims, only the account status is checked (cached)
+                        if (userStatusCache.isActive(principal.getUsername())) {
+                            userDetails = principal;
+                        }
+                    } else {
+                        // Tokens issued before the identity claims existed
+                        UserDetails loaded = userDetailsService.loadUserByUsername(claims.getSubject());
+                        if (loaded.isEnabled() && loaded.isAccountNonLocked()) {
+                            userDetails = loaded;
+                        }
+                    }
+                }
                 
-                if (jwtTokenProvider.validateToken(jwt, userDetails)) {
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authentication = 
                             new UsernamePasswordAuthenticationToken(userDetails, null, 
                                     userDetails.getAuthorities());
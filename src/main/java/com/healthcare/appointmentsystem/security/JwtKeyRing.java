@@ -0,0 +1,291 @@
+package com.healthcare.appointmentsystem.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Signing key and verification keys for access tokens.
+ *
+ * Tokens are signed with one key (HS512, RS256 or ES256 per
+ * app.jwt.algorithm) and name it in the kid header. Verification looks the
+ * kid up in the ring, which holds the signing key's public half plus any
+ * keys from app.jwt.jwks (a JWKS file or URL), so a rotation is: publish
+ * the new public key to every node's JWKS, switch the signing key, and drop
+ * the old key once its tokens have expired. An unknown kid triggers a
+ * reload of the JWKS, at most once per app.jwt.jwks-refresh-ms.
+ *
+ * Without app.jwt.private-key an asymmetric algorithm signs with a key pair
+ * generated at startup. Its kid gets a random suffix, so a node never
+ * mistakes another node's generated key for its own under the configured kid.
+ *
+ * Keys are decoded once and the parser is built once; verifying a token
+ * only resolves the kid against a map.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+    // Tokens issued before kid headers were introduced
+    private static final String LEGACY_KEY_ID = "";
+
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+    private final SignatureAlgorithm algorithm;
+    private final String signingKeyId;
+    private final Key signingKey;
+    private final PublicKey signingPublicKey;
+    private final Map<String, Key> fixedKeys = new HashMap<>();
+    private final String jwksLocation;
+    private final long jwksRefreshMs;
+    private final JwtParser parser;
+    private volatile Map<String, Key> verificationKeys;
+    private volatile long jwksLoadedAtMs;
+
+    public JwtKeyRing(ResourceLoader resourceLoader,
+                      ObjectMapper objectMapper,
+                      @Value("${app.jwt.algorithm:HS512}") String algorithm,
+                      @Value("${app.jwt.key-id:default}") String keyId,
+                      @Value("${app.jwt.secret:}") String secret,
+                      @Value("${app.jwt.private-key:}") String privateKeyLocation,
+                      @Value("${app.jwt.public-key:}") String publicKeyLocation,
+                      @Value("${app.jwt.jwks:}") String jwksLocation,
+                      @Value("${app.jwt.jwks-refresh-ms:60000}") long jwksRefreshMs) throws GeneralSecurityException, IOException {
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+        this.algorithm = SignatureAlgorithm.forName(algorithm);
+        this.jwksLocation = jwksLocation;
+        this.jwksRefreshMs = jwksRefreshMs;
+
+        Key hmacKey = secret.isEmpty() ? null : Keys.hmacShaKeyFor(secret.getBytes());
+        if (this.algorithm.isHmac()) {
+            if (hmacKey == null) {
+                throw new IllegalStateException("app.jwt.secret is required for " + algorithm);
+            }
+            this.signingKeyId = keyId;
+            this.signingKey = hmacKey;
+            this.signingPublicKey = null;
+            fixedKeys.put(keyId, hmacKey);
+        } else {
+            boolean generated = privateKeyLocation.isEmpty();
+            KeyPair keyPair = generated
+                    ? generateKeyPair()
+                    : new KeyPair(readPublicKey(publicKeyLocation), readPrivateKey(privateKeyLocation));
+            this.signingKeyId = generated ? keyId + "-" + UUID.randomUUID() : keyId;
+            this.signingKey = keyPair.getPrivate();
+            this.signingPublicKey = keyPair.getPublic();
+            fixedKeys.put(signingKeyId, keyPair.getPublic());
+        }
+        // Keeps tokens signed with the shared secret valid while switching to asymmetric keys
+        if (hmacKey != null) {
+            fixedKeys.put(LEGACY_KEY_ID, hmacKey);
+        }
+        this.verificationKeys = Map.copyOf(fixedKeys);
+        if (!jwksLocation.isEmpty()) {
+            reloadJwks();
+        }
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolve(header);
+                    }
+                })
+                .build();
+    }
+
+    public JwtParser parser() {
+        return parser;
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getSigningKeyId() {
+        return signingKeyId;
+    }
+
+    public Key getSigningKey() {
+        return signingKey;
+    }
+
+    // Public keys in JWKS form, empty when tokens are signed with a shared secret
+    public Map<String, Object> toJwks() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        verificationKeys.forEach((kid, key) -> {
+            if (key instanceof PublicKey publicKey) {
+                keys.add(toJwk(kid, publicKey));
+            }
+        });
+        return Map.of("keys", keys);
+    }
+
+    private Key resolve(JwsHeader<?> header) {
+        String kid = header.getKeyId() == null ? LEGACY_KEY_ID : header.getKeyId();
+        Key key = verificationKeys.get(kid);
+        if (key == null && !jwksLocation.isEmpty()
+                && System.currentTimeMillis() - jwksLoadedAtMs > jwksRefreshMs) {
+            reloadJwks();
+            key = verificationKeys.get(kid);
+        }
+        if (key == null) {
+            throw new SignatureException("Unknown signing key " + kid);
+        }
+        // Never let a token pick how its key is used, e.g. a public key as an HMAC secret
+        SignatureAlgorithm tokenAlgorithm = SignatureAlgorithm.forName(header.getAlgorithm());
+        if (tokenAlgorithm.isHmac() == (key instanceof PublicKey)
+                || (tokenAlgorithm.isRsa() && !(key instanceof RSAPublicKey))
+                || (tokenAlgorithm.isEllipticCurve() && !(key instanceof ECPublicKey))) {
+            throw new SignatureException("Algorithm " + tokenAlgorithm + " does not match key " + kid);
+        }
+        return key;
+    }
+
+    private synchronized void reloadJwks() {
+        if (System.currentTimeMillis() - jwksLoadedAtMs <= jwksRefreshMs && jwksLoadedAtMs != 0) {
+            return;
+        }
+        jwksLoadedAtMs = System.currentTimeMillis();
+        Map<String, Key> keys = new HashMap<>();
+        try (InputStream in = resourceLoader.getResource(jwksLocation).getInputStream()) {
+            for (JsonNode jwk : objectMapper.readTree(in).path("keys")) {
+                try {
+                    keys.put(jwk.path("kid").asText(), fromJwk(jwk));
+                } catch (GeneralSecurityException | IllegalArgumentException ex) {
+                    logger.warn("Skipping unreadable key {} in {}", jwk.path("kid").asText(), jwksLocation, ex);
+                }
+            }
+        } catch (IOException ex) {
+            // Keep the keys we have, the next unknown kid retries
+            logger.warn("Could not load JWKS from {}", jwksLocation, ex);
+            return;
+        }
+        // Local keys win over JWKS entries with the same kid
+        keys.putAll(fixedKeys);
+        verificationKeys = Map.copyOf(keys);
+    }
+
+    private KeyPair generateKeyPair() {
+        logger.warn("No app.jwt.private-key configured, using a generated {} key; tokens will not survive a restart "
+                + "and are only accepted by other nodes that read this node's JWKS", algorithm);
+        return Keys.keyPairFor(algorithm);
+    }
+
+    private PrivateKey readPrivateKey(String location) throws GeneralSecurityException, IOException {
+        return KeyFactory.getInstance(algorithm.getFamilyName().equals("ECDSA") ? "EC" : "RSA")
+                .generatePrivate(new PKCS8EncodedKeySpec(readPem(location)));
+    }
+
+    private PublicKey readPublicKey(String location) throws GeneralSecurityException, IOException {
+        if (location.isEmpty()) {
+            throw new IllegalStateException("app.jwt.public-key is required with app.jwt.private-key");
+        }
+        return KeyFactory.getInstance(algorithm.getFamilyName().equals("ECDSA") ? "EC" : "RSA")
+                .generatePublic(new X509EncodedKeySpec(readPem(location)));
+    }
+
+    private byte[] readPem(String location) throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        String pem = new String(resource.getInputStream().readAllBytes(), StandardCharsets.US_ASCII);
+        return Base64.getMimeDecoder().decode(pem.replaceAll("-----[A-Z ]+-----", ""));
+    }
+
+    private static Key fromJwk(JsonNode jwk) throws GeneralSecurityException {
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        switch (jwk.path("kty").asText()) {
+            case "RSA" -> {
+                BigInteger n = new BigInteger(1, decoder.decode(jwk.path("n").asText()));
+                BigInteger e = new BigInteger(1, decoder.decode(jwk.path("e").asText()));
+                return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(n, e));
+            }
+            case "EC" -> {
+                if (!"P-256".equals(jwk.path("crv").asText())) {
+                    throw new IllegalArgumentException("Unsupported curve " + jwk.path("crv").asText());
+                }
+                BigInteger x = new BigInteger(1, decoder.decode(jwk.path("x").asText()));
+                BigInteger y = new BigInteger(1, decoder.decode(jwk.path("y").asText()));
+                return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(new ECPoint(x, y), p256()));
+            }
+            default -> throw new IllegalArgumentException("Unsupported key type " + jwk.path("kty").asText());
+        }
+    }
+
+    private Map<String, Object> toJwk(String kid, PublicKey key) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        if (key instanceof RSAPublicKey rsa) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", encoder.encodeToString(unsigned(rsa.getModulus(), 0)));
+            jwk.put("e", encoder.encodeToString(unsigned(rsa.getPublicExponent(), 0)));
+        } else if (key instanceof ECPublicKey ec) {
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", encoder.encodeToString(unsigned(ec.getW().getAffineX(), 32)));
+            jwk.put("y", encoder.encodeToString(unsigned(ec.getW().getAffineY(), 32)));
+        }
+        if (key.equals(signingPublicKey)) {
+            jwk.put("alg", algorithm.getValue());
+        }
+        return jwk;
+    }
+
+    // Big-endian magnitude without the sign byte, left-padded to length when given
+    private static byte[] unsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        int start = bytes.length > 1 && bytes[0] == 0 ? 1 : 0;
+        int size = Math.max(length, bytes.length - start);
+        byte[] out = new byte[size];
+        System.arraycopy(bytes, start, out, size - (bytes.length - start), bytes.length - start);
+        return out;
+    }
+
+    private static ECParameterSpec p256() throws GeneralSecurityException {
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        return parameters.getParameterSpec(ECParameterSpec.class);
+    }
+}
@@ -1,40 +1,89 @@
 package com.healthcare.appointmentsystem.security;
 
+import com.healthcare.appointmentsystem.model.Role;
+import com.healthcare.appointmentsystem.model.User;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.SignatureException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtTokenProvider {
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_PATIENT_ID = "pid";
+    public static final String CLAIM_DOCTOR_ID = "did";
 
-    @Value("${app.jwt.expiration-ms}")
+    // Access tokens are short-lived, clients renew them with a refresh token
+    @Value("${app.jwt.expiration-ms:900000}")
     private long jwtExpirationMs;
 
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
     // Generate token
     public String generateToken(Authentication authentication) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        return generateToken(userDetails.getUsername());
+    }
+
+    public String generateToken(String username) {
+        return buildToken(username).compact();
+    }
+
+    // Token carrying the identity claims, see toPrincipal
+    public String generateToken(User user, Long patientId, Long doctorId) {
+        JwtBuilder builder = buildToken(user.getUsername())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getUserRole().name());
+        if (patientId != null) {
+            builder.claim(CLAIM_PATIENT_ID, patientId);
+        }
+        if (doctorId != null) {
+            builder.claim(CLAIM_DOCTOR_ID, doctorId);
+        }
+        return builder.compact();
+    }
+
+    private JwtBuilder buildToken(String username) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
         return Jwts.builder()
-                .setSubject(userDetails.getUsername())
+                .setId(UUID.randomUUID().toString())
+                .setSubject(username)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.getSigningKeyId())
+                .signWith(keyRing.getSigningKey(), keyRing.getAlgorithm());
+    }
+
+    // Principal from verified claims, null for tokens issued without identity claims
+    public UserPrincipal toPrincipal(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        return new UserPrincipal(userId, claims.getSubject(), Role.valueOf(role),
+                claims.get(CLAIM_PATIENT_ID, Long.class), claims.get(CLAIM_DOCTOR_ID, Long.class));
+    }
+
+    public boolean isRevoked(Claims claims) {
+        return tokenDenylist.isRevoked(claims.getId(), claims.getSubject(), claims.getIssuedAt().getTime() / 1000);
     }
 
     // Extract username from token
@@ -53,30 +102,23 @@ public class JwtTokenProvider {
         return claimsResolver.apply(claims);
     }
 
-    // Get all claims from token
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public long getExpirationMs() {
+        return jwtExpirationMs;
     }
 
-    // Check if token is expired
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    // Get all claims from token, the key is picked by the kid header
+    public Claims getAllClaimsFromToken(String token) {
+        return keyRing.parser()
+                .parseClaimsJws(token)
+                .getBody();
     }
 
     // Validate token
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
-
-    // Get signing key
-    private Key getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+        final Claims claims = getAllClaimsFromToken(token);
+        final String username = claims.getSubject();
+        return username.equals(userDetails.getUsername())
+                && !claims.getExpiration().before(new Date())
+                && !isRevoked(claims);
     }
 }
\ No newline at end of file
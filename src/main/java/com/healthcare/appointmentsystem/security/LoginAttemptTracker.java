@@ -0,0 +1,153 @@
+package com.healthcare.appointmentsystem.security;
+
+import com.healthcare.appointmentsystem.cache.EntityCacheCoherence;
+import com.healthcare.appointmentsystem.exception.TooManyRequestsException;
+import com.healthcare.appointmentsystem.model.User;
+import com.healthcare.appointmentsystem.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Failed logins per username and per client IP over a sliding window.
+ *
+ * Crossing the threshold blocks further attempts for a back-off period that
+ * doubles with every repeated block. Blocked attempts are refused before
+ * the password is checked, so a credential-stuffing run stops costing a
+ * BCrypt verification per request. After app.login.lock-after-backoffs
+ * blocks in a row the account itself is locked (accountNonLocked=false)
+ * until locked_until, which also holds across restarts and instances.
+ *
+ * Both maps are LRU-bounded, unknown usernames included.
+ */
+@Component
+public class LoginAttemptTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptTracker.class);
+    private static final int BUCKETS = 15;
+
+    private final UserRepository userRepository;
+    private final UserStatusCache userStatusCache;
+    private final EntityCacheCoherence entityCacheCoherence;
+    private final int usernameThreshold;
+    private final int ipThreshold;
+    private final long bucketMs;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    private final int lockAfterBackoffs;
+    private final long lockMinutes;
+    private final Map<String, Attempts> byUsername;
+    private final Map<String, Attempts> byIp;
+
+    public LoginAttemptTracker(UserRepository userRepository,
+                               UserStatusCache userStatusCache,
+                               EntityCacheCoherence entityCacheCoherence,
+                               @Value("${app.login.username-threshold:5}") int usernameThreshold,
+                               @Value("${app.login.ip-threshold:20}") int ipThreshold,
+                               @Value("${app.login.window-minutes:15}") long windowMinutes,
+                               @Value("${app.login.base-backoff-seconds:30}") long baseBackoffSeconds,
+                               @Value("${app.login.max-backoff-seconds:3600}") long maxBackoffSeconds,
+                               @Value("${app.login.lock-after-backoffs:4}") int lockAfterBackoffs,
+                               @Value("${app.login.lock-minutes:60}") long lockMinutes,
+                               @Value("${app.login.max-tracked:50000}") int maxTracked) {
+        this.userRepository = userRepository;
+        this.userStatusCache = userStatusCache;
+        this.entityCacheCoherence = entityCacheCoherence;
+        this.usernameThreshold = Math.max(1, usernameThreshold);
+        this.ipThreshold = Math.max(1, ipThreshold);
+        this.bucketMs = Math.max(1, windowMinutes * 60_000 / BUCKETS);
+        this.baseBackoffMs = baseBackoffSeconds * 1000;
+        this.maxBackoffMs = maxBackoffSeconds * 1000;
+        this.lockAfterBackoffs = lockAfterBackoffs;
+        this.lockMinutes = lockMinutes;
+        this.byUsername = lruMap(maxTracked);
+        this.byIp = lruMap(maxTracked);
+    }
+
+    // Refuses the attempt while the username or the IP is backing off
+    public void checkAllowed(String username, String ip) {
+        long now = System.currentTimeMillis();
+        long until = Math.max(blockedUntil(byUsername, username), blockedUntil(byIp, ip));
+        if (until > now) {
+            long retryAfter = (until - now + 999) / 1000;
+            throw new TooManyRequestsException(
+                    "Too many failed login attempts, retry in " + retryAfter + " seconds", retryAfter);
+        }
+    }
+
+    public void recordFailure(String username, String ip) {
+        long now = System.currentTimeMillis();
+        int usernameBackoffs = fail(byUsername, username, usernameThreshold, now);
+        fail(byIp, ip, ipThreshold, now);
+        if (lockAfterBackoffs > 0 && usernameBackoffs == lockAfterBackoffs) {
+            LocalDateTime until = LocalDateTime.now().plusMinutes(lockMinutes);
+            // No-op for usernames that do not exist
+            if (userRepository.lockUntil(username, until) > 0) {
+                userStatusCache.evict(username);
+                // The bulk update already invalidated this node's user region
+                entityCacheCoherence.evictEverywhere(User.class);
+                logger.warn("Locked account {} until {} after repeated failed logins", username, until);
+            }
+        }
+    }
+
+    public void recordSuccess(String username) {
+        byUsername.remove(username);
+    }
+
+    private long blockedUntil(Map<String, Attempts> map, String key) {
+        if (key == null) {
+            return 0;
+        }
+        Attempts attempts = map.get(key);
+        return attempts == null ? 0 : attempts.blockedUntilMs;
+    }
+
+    // Returns the number of consecutive back-offs for the key
+    private int fail(Map<String, Attempts> map, String key, int threshold, long now) {
+        if (key == null) {
+            return 0;
+        }
+        Attempts attempts = map.computeIfAbsent(key, k -> new Attempts(new SlidingWindowCounter(BUCKETS, bucketMs, now)));
+        synchronized (attempts) {
+            // A quiet period longer than the longest back-off starts the escalation over
+            if (attempts.backoffs > 0 && now - attempts.lastFailureMs > maxBackoffMs + bucketMs * BUCKETS) {
+                attempts.backoffs = 0;
+            }
+            attempts.lastFailureMs = now;
+            if (attempts.failures.increment(now) >= threshold) {
+                attempts.failures.reset();
+                attempts.backoffs++;
+                long backoff = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempts.backoffs - 1, 30));
+                attempts.blockedUntilMs = now + backoff;
+            }
+            return attempts.backoffs;
+        }
+    }
+
+    private static Map<String, Attempts> lruMap(int maxEntries) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Attempts> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    private static final class Attempts {
+        private final SlidingWindowCounter failures;
+        private int backoffs;
+        private long lastFailureMs;
+        private volatile long blockedUntilMs;
+
+        private Attempts(SlidingWindowCounter failures) {
+            this.failures = failures;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.healthcare.appointmentsystem.security;
+
+import java.util.Arrays;
+
+/**
+ * Events in the last {@code buckets * bucketMs} milliseconds, kept as a ring
+ * of per-bucket counts. Memory is fixed per key regardless of how many
+ * events arrive; the window slides one bucket at a time.
+ */
+final class SlidingWindowCounter {
+
+    private final int[] counts;
+    private final long bucketMs;
+    // Absolute index (time / bucketMs) of the newest bucket in the ring
+    private long head;
+    private int total;
+
+    SlidingWindowCounter(int buckets, long bucketMs, long nowMs) {
+        this.counts = new int[buckets];
+        this.bucketMs = bucketMs;
+        this.head = nowMs / bucketMs;
+    }
+
+    synchronized int increment(long nowMs) {
+        slide(nowMs);
+        counts[(int) (head % counts.length)]++;
+        return ++total;
+    }
+
+    synchronized int count(long nowMs) {
+        slide(nowMs);
+        return total;
+    }
+
+    synchronized void reset() {
+        Arrays.fill(counts, 0);
+        total = 0;
+    }
+
+    // Zero the buckets that fell out of the window since the last call
+    private void slide(long nowMs) {
+        long current = nowMs / bucketMs;
+        long steps = Math.min(current - head, counts.length);
+        for (long i = 1; i <= steps; i++) {
+            int slot = (int) ((head + i) % counts.length);
+            total -= counts[slot];
+            counts[slot] = 0;
+        }
+        if (current > head) {
+            head = current;
+        }
+    }
+}
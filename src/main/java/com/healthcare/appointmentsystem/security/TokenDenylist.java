@@ -0,0 +1,72 @@
+package com.healthcare.appointmentsystem.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked access tokens, checked on every request without a database hit.
+ *
+ * Single tokens are listed by jti until they would have expired anyway;
+ * "log out everywhere" is a per-user cut-off instead of a list of tokens,
+ * rejecting everything issued up to and including its second. Access tokens are short-lived, so
+ * both maps stay small. The list is per instance: a revoked token stays
+ * usable on other instances until it expires.
+ */
+@Component
+public class TokenDenylist {
+
+    private final long accessTokenTtlMs;
+    // jti -> expiry of the revoked token, epoch millis
+    private final ConcurrentHashMap<UUID, Long> revokedTokens = new ConcurrentHashMap<>();
+    // username -> tokens issued at or before this second (epoch seconds) are revoked
+    private final ConcurrentHashMap<String, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    public TokenDenylist(@Value("${app.jwt.expiration-ms:900000}") long accessTokenTtlMs) {
+        this.accessTokenTtlMs = accessTokenTtlMs;
+    }
+
+    public void revoke(String tokenId, long expiresAtMs) {
+        UUID jti = parse(tokenId);
+        if (jti != null && expiresAtMs > System.currentTimeMillis()) {
+            revokedTokens.put(jti, expiresAtMs);
+        }
+    }
+
+    public void revokeAllFor(String username) {
+        revokedBefore.put(username, System.currentTimeMillis() / 1000);
+    }
+
+    public boolean isRevoked(String tokenId, String username, long issuedAtSeconds) {
+        Long cutOff = revokedBefore.get(username);
+        // iat has whole-second precision, so the cut-off second itself counts as revoked;
+        // a token issued later in that same second has to be requested again
+        if (cutOff != null && issuedAtSeconds <= cutOff) {
+            return true;
+        }
+        UUID jti = parse(tokenId);
+        return jti != null && revokedTokens.containsKey(jti);
+    }
+
+    // Tokens past their expiry fail validation on their own
+    @Scheduled(fixedDelayString = "${app.jwt.denylist-purge-ms:60000}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedBefore.values().removeIf(cutOff -> cutOff * 1000 + accessTokenTtlMs <= now);
+    }
+
+    private static UUID parse(String tokenId) {
+        if (tokenId == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(tokenId);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
@@ -26,7 +26,7 @@ public class UserDetailService implements UserDetailsService {
                 user.isEnabled(),
                 user.isAccountNonExpired(),
                 user.isCredentialsNonExpired(),
-                user.isAccountNonLocked(),
+                user.isAccountNonLocked() || user.isLockExpired(),
                 Collections.singletonList(new SimpleGrantedAuthority(user.getUserRole().name()))
         );
     }
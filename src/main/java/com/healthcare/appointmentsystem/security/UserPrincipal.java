@@ -0,0 +1,105 @@
+package com.healthcare.appointmentsystem.security;
+
+import com.healthcare.appointmentsystem.model.Role;
+import lombok.Getter;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated user built from the claims of an access token, so request
+ * handling knows the user, patient and doctor ids without loading them.
+ * Account status is checked separately through {@link UserStatusCache}.
+ */
+@Getter
+public class UserPrincipal implements UserDetails {
+
+    private final Long userId;
+    private final String username;
+    private final Role role;
+    private final Long patientId;
+    private final Long doctorId;
+    private final List<GrantedAuthority> authorities;
+
+    public UserPrincipal(Long userId, String username, Role role, Long patientId, Long doctorId) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.patientId = patientId;
+        this.doctorId = doctorId;
+        this.authorities = List.of(new SimpleGrantedAuthority(role.name()));
+    }
+
+    // The current request's principal, null for anonymous requests and tokens without claims
+    public static UserPrincipal current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal;
+        }
+        return null;
+    }
+
+    public static boolean isCurrentUser(Long userId) {
+        UserPrincipal principal = current();
+        return principal != null && principal.getUserId().equals(userId);
+    }
+
+    /**
+     * Patient a request acts for: always the token's own patient for patients,
+     * the requested one for admins. Other roles and tokens without claims are
+     * refused.
+     */
+    public static Long resolvePatientId(Long requested) {
+        UserPrincipal principal = current();
+        if (principal != null && principal.getRole() == Role.ROLE_ADMIN) {
+            return requested;
+        }
+        if (principal == null || principal.getRole() != Role.ROLE_PATIENT || principal.getPatientId() == null) {
+            throw new AccessDeniedException("Only patients can do this for themselves");
+        }
+        return principal.getPatientId();
+    }
+
+    // Admins may access every patient's data, patients only their own
+    public static boolean canAccessPatient(Long patientId) {
+        UserPrincipal principal = current();
+        return principal != null && (principal.getRole() == Role.ROLE_ADMIN
+                || (patientId != null && patientId.equals(principal.getPatientId())));
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
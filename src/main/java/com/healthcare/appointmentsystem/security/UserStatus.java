@@ -0,0 +1,19 @@
+package com.healthcare.appointmentsystem.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Account flags needed to accept a token, loaded without the rest of the user row
+@Getter
+@AllArgsConstructor
+public class UserStatus {
+    private final boolean enabled;
+    private final boolean accountNonLocked;
+    private final LocalDateTime lockedUntil;
+
+    public boolean isActive() {
+        return enabled && (accountNonLocked || (lockedUntil != null && lockedUntil.isBefore(LocalDateTime.now())));
+    }
+}
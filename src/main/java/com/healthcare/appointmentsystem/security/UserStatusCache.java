@@ -0,0 +1,44 @@
+package com.healthcare.appointmentsystem.security;
+
+import com.healthcare.appointmentsystem.coordination.InvalidationBus;
+import com.healthcare.appointmentsystem.coordination.NearCache;
+import com.healthcare.appointmentsystem.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Whether a user may still authenticate, cached for a few seconds per
+ * username. Tokens carry the identity, but disabling or locking an account
+ * has to take effect before they expire; the TTL bounds that delay without
+ * a query on every request. Evicting an entry drops it on every node.
+ */
+@Component
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+    private final NearCache<String, Boolean> entries;
+
+    public UserStatusCache(UserRepository userRepository, InvalidationBus invalidationBus,
+                           @Value("${app.security.user-status-ttl-ms:30000}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.entries = new NearCache<>("user-status", ttlMs, Function.identity(), invalidationBus);
+    }
+
+    public boolean isActive(String username) {
+        return entries.get(username, key -> userRepository.findStatusByUsername(key)
+                .map(UserStatus::isActive)
+                .orElse(false));
+    }
+
+    public void evict(String username) {
+        entries.invalidate(username);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.user-status-purge-ms:60000}")
+    public void purge() {
+        entries.purgeExpired();
+    }
+}
@@ -1,5 +1,6 @@
 package com.healthcare.appointmentsystem.service;
 
+import com.healthcare.appointmentsystem.dto.VersionStampDTO;
 import com.healthcare.appointmentsystem.model.Appointment;
 import com.healthcare.appointmentsystem.model.AppointmentStatus;
 
@@ -10,16 +11,21 @@ import java.util.Optional;
 
 public interface AppointmentService {
     Appointment createAppointment(Appointment appointment);
+    Appointment createAppointment(Appointment appointment, Integer durationMinutes, Integer slotCount);
     Appointment updateAppointment(Appointment appointment);
+    Appointment updateAppointment(Appointment appointment, LocalDateTime newStart, Integer durationMinutes);
     Appointment updateAppointmentStatus(Long appointmentId, AppointmentStatus status);
     void deleteAppointment(Long appointmentId);
     Appointment findAppointmentById(Long id);
     Optional<Appointment> findAppointmentByDoctorIdAndPatientId(Long doctorId, Long patientId);
     List<Appointment> findAppointmentByDoctorId(Long doctorId);
+    List<Appointment> findAppointmentByDoctorId(Long doctorId, boolean includeArchived);
     List<Appointment> findAppointmentByUserId(Long userId);
+    List<Appointment> findAppointmentByUserId(Long userId, boolean includeArchived);
     List<Appointment> findAppointmentByDate(LocalDateTime date);
     List<Appointment> findAppointmentBetweenDates(LocalDate startDate, LocalDate endDate);
-    boolean isTimeSlotAvailable(Long doctorId, LocalDate date, int duration);
+    boolean isTimeSlotAvailable(Long doctorId, LocalDateTime startTime);
     boolean hasConflict(Appointment appointment);
     List<Appointment> findAllAppointments();
+    VersionStampDTO getVersionStampByUserId(Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.healthcare.appointmentsystem.service;
+
+import com.healthcare.appointmentsystem.dto.AuthenticationResponseDTO;
+import com.healthcare.appointmentsystem.model.User;
+
+public interface AuthTokenService {
+    AuthenticationResponseDTO issueTokens(User user);
+    AuthenticationResponseDTO refresh(String refreshToken);
+    void logout(String refreshToken, String accessToken, boolean allSessions);
+}
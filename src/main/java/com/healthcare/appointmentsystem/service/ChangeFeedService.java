@@ -0,0 +1,10 @@
+package com.healthcare.appointmentsystem.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface ChangeFeedService {
+    // Subscribe to appointment and availability changes for a doctor, patient ids only when allowed
+    SseEmitter subscribeToDoctor(Long doctorId, boolean includePatientIds);
+    // Subscribe to appointment changes for a patient
+    SseEmitter subscribeToPatient(Long patientId);
+}
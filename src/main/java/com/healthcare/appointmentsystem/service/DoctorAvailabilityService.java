@@ -2,11 +2,15 @@ package com.healthcare.appointmentsystem.service;
 
 import com.healthcare.appointmentsystem.model.DoctorAvailability;
 import com.healthcare.appointmentsystem.dto.TimeSlotDTO;
+import com.healthcare.appointmentsystem.dto.VersionStampDTO;
+import com.healthcare.appointmentsystem.schedule.ScheduleWindow;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface DoctorAvailabilityService {
     DoctorAvailability createDoctorAvailability(DoctorAvailability doctorAvailability);
@@ -18,7 +22,25 @@ public interface DoctorAvailabilityService {
     List<DoctorAvailability> findDoctorAvailabilityByDoctorIdAndSpecificDate(Long doctorId, LocalDate date);
     boolean isTimeSlotAvailable(Long doctorId, LocalDate date, LocalTime time);
     List<TimeSlotDTO> getAvailableTimeSlots(Long doctorId, LocalDate date);
+
+    // Free slots of the given length, starting on the window's slot boundaries
+    List<TimeSlotDTO> getAvailableTimeSlots(Long doctorId, LocalDate date, Integer durationMinutes);
+
+    // Working window covering the given time, if any
+    Optional<ScheduleWindow> findWindowAt(Long doctorId, LocalDateTime time);
     
     // Add the missing method declaration
     boolean isDoctorAvailableAt(Long doctorId, LocalDate date, LocalTime time);
+
+    // Fingerprint of everything getAvailableTimeSlots depends on, for ETags
+    List<VersionStampDTO> getTimeSlotVersionStamps(Long doctorId, LocalDate date);
+
+    // Changes whenever a hold on the doctor's slots is placed or removed, for ETags
+    long getHoldGeneration(Long doctorId);
+
+    // Earliest free slots across all doctors of a specialization, in chronological order
+    List<TimeSlotDTO> findNextAvailableSlots(String specialization, LocalDate fromDate, int horizonDays, int limit);
+
+    // Free slots of every doctor on a date, for clinic-wide day views
+    List<TimeSlotDTO> getClinicTimeSlots(LocalDate date);
 }
\ No newline at end of file
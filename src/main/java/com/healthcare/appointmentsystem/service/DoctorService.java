@@ -1,5 +1,7 @@
 package com.healthcare.appointmentsystem.service;
 
+import com.healthcare.appointmentsystem.dto.DoctorSearchResultDTO;
+import com.healthcare.appointmentsystem.dto.VersionStampDTO;
 import com.healthcare.appointmentsystem.model.Doctor;
 import java.util.List;
 import java.util.Optional;
@@ -12,4 +14,6 @@ public interface DoctorService {
     Doctor updateDoctor(Doctor doctor);
     void deleteDoctor(Long id);
     boolean existsByLicenseNumber(String licenseNumber);
+    VersionStampDTO getDirectoryVersionStamp();
+    List<DoctorSearchResultDTO> searchDoctors(String query, int limit);
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.healthcare.appointmentsystem.service;
+
+import com.healthcare.appointmentsystem.dto.SlotHoldDTO;
+import com.healthcare.appointmentsystem.dto.SlotHoldRequestDTO;
+
+public interface SlotHoldService {
+    SlotHoldDTO placeHold(SlotHoldRequestDTO request);
+    SlotHoldDTO findHoldById(String holdId);
+    void releaseHold(String holdId);
+}
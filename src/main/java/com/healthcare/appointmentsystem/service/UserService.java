@@ -1,5 +1,7 @@
 package com.healthcare.appointmentsystem.service;
 
+import com.healthcare.appointmentsystem.dto.UserResponseDTO;
+import com.healthcare.appointmentsystem.dto.UserUpdateRequestDTO;
 import com.healthcare.appointmentsystem.model.User;
 
 import java.util.List;
@@ -22,5 +24,7 @@ public interface UserService {
     List<User> findAllUsers();
     Optional<User> findUserByEmail(String email);
     boolean existsByEmail(String email);
+    // Update the profile (User + Patient) of the given user in one transaction
+    UserResponseDTO updateProfile(String username, UserUpdateRequestDTO updateRequest);
 
 }
@@ -0,0 +1,22 @@
+package com.healthcare.appointmentsystem.service;
+
+import com.healthcare.appointmentsystem.dto.WaitlistRequestDTO;
+import com.healthcare.appointmentsystem.model.WaitlistEntry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface WaitlistService {
+    WaitlistEntry joinWaitlist(WaitlistRequestDTO request);
+    void leaveWaitlist(Long entryId);
+    WaitlistEntry acceptOffer(Long entryId);
+    WaitlistEntry declineOffer(Long entryId);
+    WaitlistEntry findWaitlistEntryById(Long entryId);
+    List<WaitlistEntry> findWaitlistEntriesByPatientId(Long patientId);
+
+    // Offers or books a freed interval of a doctor for the best waiting candidate
+    void backfill(Long doctorId, LocalDateTime start, LocalDateTime end);
+
+    // Same, but never to the given entry, e.g. the one that just declined the interval
+    void backfill(Long doctorId, LocalDateTime start, LocalDateTime end, Long excludedEntryId);
+}
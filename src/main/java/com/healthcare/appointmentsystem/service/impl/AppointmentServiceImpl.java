@@ -1,23 +1,44 @@
 package com.healthcare.appointmentsystem.service.impl;
 
+import com.healthcare.appointmentsystem.capacity.CapacityLimits;
+import com.healthcare.appointmentsystem.capacity.CapacityPolicy;
+import com.healthcare.appointmentsystem.capacity.CapacityTracker;
+import com.healthcare.appointmentsystem.coordination.DistributedLock;
+import com.healthcare.appointmentsystem.datasource.ReadOnlyTransactional;
+import com.healthcare.appointmentsystem.dto.VersionStampDTO;
+import com.healthcare.appointmentsystem.event.AppointmentChangedEvent;
+import com.healthcare.appointmentsystem.event.ChangeType;
 import com.healthcare.appointmentsystem.exception.BadRequestException;
 import com.healthcare.appointmentsystem.exception.ConflictException;
 import com.healthcare.appointmentsystem.exception.ResourceNotFoundException;
 import com.healthcare.appointmentsystem.model.Appointment;
 import com.healthcare.appointmentsystem.model.AppointmentStatus;
+import com.healthcare.appointmentsystem.model.ArchivedAppointment;
+import com.healthcare.appointmentsystem.model.Doctor;
 import com.healthcare.appointmentsystem.repository.AppointmentRepository;
+import com.healthcare.appointmentsystem.repository.ArchivedAppointmentRepository;
 import com.healthcare.appointmentsystem.repository.DoctorRepository;
 import com.healthcare.appointmentsystem.repository.PatientRepository;
 import com.healthcare.appointmentsystem.repository.UserRepository;
+import com.healthcare.appointmentsystem.schedule.OccupancyStore;
+import com.healthcare.appointmentsystem.schedule.ScheduleWindow;
+import com.healthcare.appointmentsystem.schedule.SlotHoldRegistry;
+import com.healthcare.appointmentsystem.security.UserPrincipal;
 import com.healthcare.appointmentsystem.service.AppointmentService;
 import com.healthcare.appointmentsystem.service.DoctorAvailabilityService;
+import com.healthcare.appointmentsystem.util.TimeCodec;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -29,18 +50,41 @@ public class AppointmentServiceImpl implements AppointmentService {
     // Properly declare the DoctorAvailabilityService as a field
     private final DoctorAvailabilityService availabilityService;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OccupancyStore occupancyStore;
+    private final CapacityPolicy capacityPolicy;
+    private final CapacityTracker capacityTracker;
+    private final SlotHoldRegistry slotHolds;
+    private final DistributedLock bookingLock;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+
+    @Value("${app.appointment.max-duration-minutes:480}")
+    private int maxDurationMinutes;
+
+    @Value("${app.coordination.lock-wait-ms:5000}")
+    private long bookingLockWaitMs;
 
     @Autowired
     public AppointmentServiceImpl(
             AppointmentRepository appointmentRepository,
             PatientRepository patientRepository,
             DoctorRepository doctorRepository,
-            DoctorAvailabilityService availabilityService, UserRepository userRepository) {
+            DoctorAvailabilityService availabilityService, UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher, OccupancyStore occupancyStore,
+            CapacityPolicy capacityPolicy, CapacityTracker capacityTracker, SlotHoldRegistry slotHolds,
+            DistributedLock bookingLock, ArchivedAppointmentRepository archivedAppointmentRepository) {
         this.appointmentRepository = appointmentRepository;
         this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
         this.availabilityService = availabilityService;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.occupancyStore = occupancyStore;
+        this.capacityPolicy = capacityPolicy;
+        this.capacityTracker = capacityTracker;
+        this.slotHolds = slotHolds;
+        this.bookingLock = bookingLock;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
     }
 
 
@@ -48,9 +92,25 @@ public class AppointmentServiceImpl implements AppointmentService {
     // Then update the createAppointment method
 
     @Override
+    @Transactional
     public Appointment createAppointment(Appointment appointment) {
+        return createAppointment(appointment, null, null);
+    }
+
+    // Transactional so the outbox row is committed atomically with the appointment
+    @Override
+    @Transactional
+    public Appointment createAppointment(Appointment appointment, Integer durationMinutes, Integer slotCount) {
+        // Someone else holding the start minute loses nothing but an in-memory lookup
+        if (appointment.getAppointmentDateTime() != null && appointment.getPatient() != null) {
+            long start = TimeCodec.toEpochMinute(appointment.getAppointmentDateTime());
+            if (slotHolds.isHeldByOther(appointment.getDoctor().getId(), start, start + 1, appointment.getPatient().getId())) {
+                throw new ConflictException("This time slot is currently held by another booking");
+            }
+        }
+        
         // Validate doctor exists
-        doctorRepository.findById(appointment.getDoctor().getId())
+        Doctor doctor = doctorRepository.findById(appointment.getDoctor().getId())
             .orElseThrow(() -> new ResourceNotFoundException("Doctor", "id", appointment.getDoctor().getId()));
         
         // Validate patient exists
@@ -67,37 +127,64 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new BadRequestException("Appointment cannot be scheduled in the past");
         }
         
-        // Validate timeslot availability
-        if (!isTimeSlotAvailable(appointment.getDoctor().getId(), 
-                                 appointment.getAppointmentDateTime().toLocalDate(), 30)) {
-            throw new ConflictException("Time slot is not available for this doctor");
-        }
-        
         // Check if the doctor is available at this time
-        boolean isDoctorAvailable = availabilityService.isDoctorAvailableAt(
-                appointment.getDoctor().getId(),
-                appointment.getAppointmentDateTime().toLocalDate(),
-                appointment.getAppointmentDateTime().toLocalTime());
+        ScheduleWindow window = availabilityService.findWindowAt(
+                appointment.getDoctor().getId(), appointment.getAppointmentDateTime())
+            .orElseThrow(() -> new ConflictException("Doctor is not available at this time"));
         
-        if (!isDoctorAvailable) {
-            throw new ConflictException("Doctor is not available at this time");
+        // Length comes from the request or from the window's slot duration, and must fit the window
+        int duration = resolveDuration(window, durationMinutes, slotCount);
+        appointment.scheduleAppointment(appointment.getAppointmentDateTime(), duration);
+        if (TimeCodec.toMinuteOfDay(appointment.getAppointmentDateTime().toLocalTime()) + duration > window.getEndMinute()) {
+            throw new ConflictException("Appointment does not fit in the doctor's working hours");
         }
         
-        // Check for conflicts with existing appointments
-        if (hasConflict(appointment)) {
+        // One booking per doctor at a time across all nodes, held until commit so the
+        // next holder sees this appointment
+        return bookingLock.executeWithLock("booking:doctor:" + doctor.getId(), Duration.ofMillis(bookingLockWaitMs),
+                () -> saveIfFree(appointment, doctor));
+    }
+    
+    private Appointment saveIfFree(Appointment appointment, Doctor doctor) {
+        // Other nodes may have booked since this node loaded its caches
+        if (!bookingLock.isLocalOnly()) {
+            occupancyStore.evict(doctor.getId());
+            capacityTracker.evict(doctor.getId());
+        }
+        
+        // Check for conflicts with existing appointments; group slots may be joined
+        // by further patients as long as they start together
+        CapacityLimits limits = capacityPolicy.limitsFor(doctor);
+        if (hasConflict(appointment) && !(limits.isGroupSlot()
+                && capacityTracker.bookedAt(doctor.getId(), appointment.getAppointmentDateTime()) > 0)) {
             throw new ConflictException("This appointment conflicts with an existing appointment");
         }
         
+        // Take the place last, the counter is released again if the transaction rolls back
+        if (!capacityTracker.tryReserve(doctor.getId(), appointment.getAppointmentDateTime(), limits)) {
+            throw new ConflictException("Time slot is not available for this doctor");
+        }
+        
         // Set default status if not provided
         if (appointment.getStatus() == null) {
             appointment.setStatus(AppointmentStatus.SCHEDULED);
         }
         
-        return appointmentRepository.save(appointment);
+        Appointment savedAppointment = appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.of(ChangeType.CREATED, savedAppointment));
+        return savedAppointment;
     }
     
     @Override
+    @Transactional
     public Appointment updateAppointment(Appointment appointment) {
+        return updateAppointment(appointment, null, null);
+    }
+    
+    // The @Version column turns the final save into a conditional update
+    @Override
+    @Transactional
+    public Appointment updateAppointment(Appointment appointment, LocalDateTime newStart, Integer durationMinutes) {
         // Validate appointment exists
         if (!appointmentRepository.existsById(appointment.getId())) {
             throw new ResourceNotFoundException("Appointment", "id", appointment.getId());
@@ -106,6 +193,24 @@ public class AppointmentServiceImpl implements AppointmentService {
         Appointment appointmentToUpdate = appointmentRepository.findById(appointment.getId())
             .orElseThrow(() -> new ResourceNotFoundException("Appointment", "id", appointment.getId()));
         
+        // Moving or resizing gets the same checks as a new booking; the status is kept
+        if (newStart != null || durationMinutes != null) {
+            reschedule(appointment, newStart != null ? newStart : appointment.getAppointmentDateTime(), durationMinutes);
+        }
+        
+        // Serialized with bookings for the same doctor, so a move cannot race a new booking
+        Long doctorId = appointmentToUpdate.getDoctor().getId();
+        return bookingLock.executeWithLock("booking:doctor:" + doctorId, Duration.ofMillis(bookingLockWaitMs),
+                () -> saveUpdateIfFree(appointment, appointmentToUpdate, doctorId));
+    }
+    
+    private Appointment saveUpdateIfFree(Appointment appointment, Appointment appointmentToUpdate, Long doctorId) {
+        // Other nodes may have booked since this node loaded its caches
+        if (!bookingLock.isLocalOnly()) {
+            occupancyStore.evict(doctorId);
+            capacityTracker.evict(doctorId);
+        }
+        
         // Check for conflicts with other appointments
         if (hasConflict(appointment)) {
             throw new ConflictException("This appointment update conflicts with an existing appointment");
@@ -117,10 +222,13 @@ public class AppointmentServiceImpl implements AppointmentService {
         appointmentToUpdate.setNotes(appointment.getNotes());
         appointmentToUpdate.setStatus(appointment.getStatus());
         
-        return appointmentRepository.save(appointmentToUpdate);
+        Appointment savedAppointment = appointmentRepository.save(appointmentToUpdate);
+        eventPublisher.publishEvent(AppointmentChangedEvent.of(ChangeType.UPDATED, savedAppointment));
+        return savedAppointment;
     }
     
     @Override
+    @Transactional
     public Appointment updateAppointmentStatus(Long appointmentId, AppointmentStatus status) {
         Appointment appointmentToUpdate = findAppointmentById(appointmentId);
         
@@ -130,16 +238,24 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new BadRequestException("Cannot change status of a cancelled appointment");
         }
         
+        // Repeating the current status is a no-op, listeners must not release a place twice
+        if (appointmentToUpdate.getStatus() == status) {
+            return appointmentToUpdate;
+        }
+        
         appointmentToUpdate.setStatus(status);
-        return appointmentRepository.save(appointmentToUpdate);
+        Appointment savedAppointment = appointmentRepository.save(appointmentToUpdate);
+        eventPublisher.publishEvent(AppointmentChangedEvent.of(ChangeType.STATUS_CHANGED, savedAppointment));
+        return savedAppointment;
     }
     
     @Override
+    @Transactional
     public void deleteAppointment(Long appointmentId) {
-        if (!appointmentRepository.existsById(appointmentId)) {
-            throw new ResourceNotFoundException("Appointment", "id", appointmentId);
-        }
-        appointmentRepository.deleteById(appointmentId);
+        // Load first so the event can tell listeners which doctor and slot were freed
+        Appointment appointment = findAppointmentById(appointmentId);
+        appointmentRepository.delete(appointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.of(ChangeType.DELETED, appointment));
     }
     
     @Override
@@ -170,6 +286,7 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
     
     @Override
+    @ReadOnlyTransactional
     public List<Appointment> findAppointmentByDoctorId(Long doctorId) {
         if (!doctorRepository.existsById(doctorId)) {
             throw new ResourceNotFoundException("Doctor", "id", doctorId);
@@ -178,14 +295,48 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
 
     @Override
+    @ReadOnlyTransactional
+    public List<Appointment> findAppointmentByDoctorId(Long doctorId, boolean includeArchived) {
+        List<Appointment> appointments = findAppointmentByDoctorId(doctorId);
+        if (!includeArchived) {
+            return appointments;
+        }
+        return withArchived(appointments, archivedAppointmentRepository.findByDoctorId(doctorId));
+    }
+
+    @Override
+    @ReadOnlyTransactional
     public List<Appointment> findAppointmentByUserId(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new ResourceNotFoundException("Patient", "id", userId);
+        // The caller's own id is known to exist from the token
+        if (!UserPrincipal.isCurrentUser(userId) && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
         }
         return appointmentRepository.findAppointmentByUserId(userId);
     }
+
+    @Override
+    @ReadOnlyTransactional
+    public List<Appointment> findAppointmentByUserId(Long userId, boolean includeArchived) {
+        List<Appointment> appointments = findAppointmentByUserId(userId);
+        if (!includeArchived) {
+            return appointments;
+        }
+        return withArchived(appointments, archivedAppointmentRepository.findByUserId(userId));
+    }
+
+    // Archived rows are appended as detached copies, oldest history last
+    private static List<Appointment> withArchived(List<Appointment> live, List<ArchivedAppointment> archived) {
+        List<Appointment> all = new ArrayList<>(live.size() + archived.size());
+        all.addAll(live);
+        archived.stream()
+                .sorted(Comparator.comparing(ArchivedAppointment::getAppointmentDateTime).reversed())
+                .map(ArchivedAppointment::toAppointment)
+                .forEach(all::add);
+        return all;
+    }
     
     @Override
+    @ReadOnlyTransactional
     public List<Appointment> findAppointmentByDate(LocalDateTime date) {
         if (date == null) {
             throw new BadRequestException("Date cannot be null");
@@ -195,6 +346,7 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
     
     @Override
+    @ReadOnlyTransactional
     public List<Appointment> findAppointmentBetweenDates(LocalDate startDate, LocalDate endDate) {
         if (startDate == null || endDate == null) {
             throw new BadRequestException("Start date and end date cannot be null");
@@ -214,72 +366,95 @@ public class AppointmentServiceImpl implements AppointmentService {
                 .toList();
     }
     
+    // Capacity only: whether the doctor's day and the slot starting at the given time still take a booking
     @Override
-    public boolean isTimeSlotAvailable(Long doctorId, LocalDate date, int duration) {
-        if (!doctorRepository.existsById(doctorId)) {
-            throw new ResourceNotFoundException("Doctor", "id", doctorId);
-        }
+    public boolean isTimeSlotAvailable(Long doctorId, LocalDateTime startTime) {
+        Doctor doctor = doctorRepository.findById(doctorId)
+            .orElseThrow(() -> new ResourceNotFoundException("Doctor", "id", doctorId));
         
-        if (date == null) {
-            throw new BadRequestException("Date cannot be null");
+        if (startTime == null) {
+            throw new BadRequestException("Start time cannot be null");
         }
         
-        if (date.isBefore(LocalDate.now())) {
+        if (startTime.isBefore(LocalDateTime.now())) {
             throw new BadRequestException("Cannot check availability for past dates");
         }
         
-        List<Appointment> appointments = findAppointmentByDoctorId(doctorId).stream()
-            .filter(appointment -> 
-                appointment.getStatus() != AppointmentStatus.CANCELLED && 
-                appointment.getAppointmentDateTime().toLocalDate().equals(date))
-            .toList();
-            
-        // Check if there are any appointments that would conflict with the new time slot
-        for (Appointment appointment : appointments) {
-            if (appointment.getEndDateTime().toLocalDate().equals(date)) {
-                return false;
-            }
+        return capacityTracker.hasCapacity(doctorId, startTime, capacityPolicy.limitsFor(doctor));
+    }
+    
+    private void reschedule(Appointment appointment, LocalDateTime start, Integer durationMinutes) {
+        if (start == null) {
+            throw new BadRequestException("Appointment date and time cannot be null");
         }
+        if (start.isBefore(LocalDateTime.now())) {
+            throw new BadRequestException("Appointment cannot be scheduled in the past");
+        }
+        ScheduleWindow window = availabilityService.findWindowAt(appointment.getDoctor().getId(), start)
+            .orElseThrow(() -> new ConflictException("Doctor is not available at this time"));
         
-        // This is a simplistic check; in a real system, you'd have a more sophisticated
-        // algorithm considering doctor's working hours, lunch breaks, etc.
-        return appointments.size() < duration;
+        // Without an explicit length the appointment keeps its current one
+        Integer requested = durationMinutes != null ? durationMinutes
+                : appointment.getDurationMinutes() > 0 ? Integer.valueOf(appointment.getDurationMinutes()) : null;
+        int duration = resolveDuration(window, requested, null);
+        if (TimeCodec.toMinuteOfDay(start.toLocalTime()) + duration > window.getEndMinute()) {
+            throw new ConflictException("Appointment does not fit in the doctor's working hours");
+        }
+        appointment.scheduleAppointment(start, duration);
     }
-    
+
+    private int resolveDuration(ScheduleWindow window, Integer durationMinutes, Integer slotCount) {
+        if (durationMinutes != null && slotCount != null) {
+            throw new BadRequestException("Specify either a duration or a slot count, not both");
+        }
+        int duration;
+        if (durationMinutes != null) {
+            duration = durationMinutes;
+        } else {
+            int slots = slotCount != null ? slotCount : 1;
+            if (slots < 1) {
+                throw new BadRequestException("Slot count must be at least 1");
+            }
+            duration = slots * window.getSlotDuration();
+        }
+        if (duration < 1 || duration > maxDurationMinutes) {
+            throw new BadRequestException("Duration must be between 1 and " + maxDurationMinutes + " minutes");
+        }
+        return duration;
+    }
+
     @Override
     public boolean hasConflict(Appointment appointment) {
-        // Get all appointments for the same doctor on the same date
-        List<Appointment> doctorAppointments = findAppointmentByDoctorId(appointment.getDoctor().getId())
-            .stream()
-            .filter(existingAppointment -> 
-                // Only check non-cancelled appointments
-                existingAppointment.getStatus() != AppointmentStatus.CANCELLED &&
-                // Exclude the current appointment if we're updating
-                !Objects.equals(existingAppointment.getId(), appointment.getId()) &&
-                // Only check appointments on the same date
-                existingAppointment.getAppointmentDateTime().toLocalDate()
-                    .equals(appointment.getAppointmentDateTime().toLocalDate())
-            )
-            .toList();
-
-        // Check for time overlaps
-        return doctorAppointments.stream().anyMatch(existingAppointment -> 
-            // New appointment starts during an existing appointment
-            (appointment.getAppointmentDateTime().isAfter(existingAppointment.getAppointmentDateTime()) &&
-             appointment.getAppointmentDateTime().isBefore(existingAppointment.getEndDateTime())) ||
-            // New appointment ends during an existing appointment
-            (appointment.getEndDateTime().isAfter(existingAppointment.getAppointmentDateTime()) &&
-             appointment.getEndDateTime().isBefore(existingAppointment.getEndDateTime())) ||
-            // New appointment completely contains an existing appointment
-            (appointment.getAppointmentDateTime().isBefore(existingAppointment.getAppointmentDateTime()) &&
-             appointment.getEndDateTime().isAfter(existingAppointment.getEndDateTime())) ||
-            // Exact same start time
-            appointment.getAppointmentDateTime().equals(existingAppointment.getAppointmentDateTime())
-        );
+        // The occupancy bitmap is only a quick pre-check for new bookings: a day loaded
+        // while a booking committed can miss it, so the database decides
+        long start = TimeCodec.toEpochMinute(appointment.getAppointmentDateTime());
+        long end = appointment.getEndDateTime() != null ? TimeCodec.toEpochMinute(appointment.getEndDateTime()) : start;
+        // Slots held by another patient count as taken
+        Long patientId = appointment.getPatient() != null ? appointment.getPatient().getId() : null;
+        if (slotHolds.isHeldByOther(appointment.getDoctor().getId(), start, end, patientId)) {
+            return true;
+        }
+        if (appointment.getId() == 0 && appointment.getEndDateTime() != null
+                && occupancyStore.isBooked(appointment.getDoctor().getId(), start, end)) {
+            return true;
+        }
+        // Cancelled appointments and the appointment being updated do not count
+        LocalDateTime endDateTime = appointment.getEndDateTime() != null
+                ? appointment.getEndDateTime() : appointment.getAppointmentDateTime();
+        return appointmentRepository.existsOverlapping(appointment.getDoctor().getId(),
+                appointment.getAppointmentDateTime(), endDateTime, appointment.getId());
     }
 
     @Override
+    @ReadOnlyTransactional
     public List<Appointment> findAllAppointments() {
         return appointmentRepository.findAll();
     }
+
+    // Aggregate query only, the appointments themselves are not loaded
+    @Override
+    @ReadOnlyTransactional
+    public VersionStampDTO getVersionStampByUserId(Long userId) {
+        return appointmentRepository.findVersionStampByUserId(userId);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+package com.healthcare.appointmentsystem.service.impl;
+
+import com.healthcare.appointmentsystem.dto.AuthenticationResponseDTO;
+import com.healthcare.appointmentsystem.exception.UnauthorizedException;
+import com.healthcare.appointmentsystem.model.Doctor;
+import com.healthcare.appointmentsystem.model.Patient;
+import com.healthcare.appointmentsystem.model.RefreshToken;
+import com.healthcare.appointmentsystem.model.Role;
+import com.healthcare.appointmentsystem.model.User;
+import com.healthcare.appointmentsystem.repository.DoctorRepository;
+import com.healthcare.appointmentsystem.repository.PatientRepository;
+import com.healthcare.appointmentsystem.repository.RefreshTokenRepository;
+import com.healthcare.appointmentsystem.repository.UserRepository;
+import com.healthcare.appointmentsystem.security.JwtTokenProvider;
+import com.healthcare.appointmentsystem.security.TokenDenylist;
+import com.healthcare.appointmentsystem.service.AuthTokenService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues access/refresh token pairs. Refresh tokens are random, stored as
+ * SHA-256 hashes and single use: each refresh rotates the token, so a
+ * refresh costs one indexed lookup and an insert instead of a BCrypt
+ * verification. Reusing a rotated token is treated as theft and revokes
+ * every token descending from the same login.
+ */
+@Service
+public class AuthTokenServiceImpl implements AuthTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthTokenServiceImpl.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenDenylist tokenDenylist;
+    private final long refreshTtlMs;
+    private final SecureRandom random = new SecureRandom();
+
+    public AuthTokenServiceImpl(RefreshTokenRepository refreshTokenRepository,
+                                UserRepository userRepository,
+                                PatientRepository patientRepository,
+                                DoctorRepository doctorRepository,
+                                JwtTokenProvider jwtTokenProvider,
+                                TokenDenylist tokenDenylist,
+                                @Value("${app.jwt.refresh-expiration-ms:1209600000}") long refreshTtlMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.patientRepository = patientRepository;
+        this.doctorRepository = doctorRepository;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenDenylist = tokenDenylist;
+        this.refreshTtlMs = refreshTtlMs;
+    }
+
+    @Override
+    @Transactional
+    public AuthenticationResponseDTO issueTokens(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    // Revocations must survive the exception that reports them
+    @Override
+    @Transactional(dontRollbackOn = UnauthorizedException.class)
+    public AuthenticationResponseDTO refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new UnauthorizedException("Refresh token is required");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
+        if (stored.getRevokedAt() != null || stored.getExpiresAt().isBefore(now)) {
+            throw new UnauthorizedException("Refresh token is expired or revoked");
+        }
+        if (refreshTokenRepository.markRotated(stored.getId(), now) == 0) {
+            refreshTokenRepository.revokeFamily(stored.getFamilyId(), now);
+            logger.warn("Refresh token reuse for user {}, revoked token family {}",
+                    stored.getUser().getUsername(), stored.getFamilyId());
+            throw new UnauthorizedException("Refresh token was already used");
+        }
+        User user = stored.getUser();
+        if (!user.isEnabled() || !(user.isAccountNonLocked() || user.isLockExpired())) {
+            refreshTokenRepository.revokeFamily(stored.getFamilyId(), now);
+            throw new UnauthorizedException("Account is disabled or locked");
+        }
+        return issue(user, stored.getFamilyId());
+    }
+
+    @Override
+    @Transactional
+    public void logout(String refreshToken, String accessToken, boolean allSessions) {
+        LocalDateTime now = LocalDateTime.now();
+        User user = null;
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            Optional<RefreshToken> stored = refreshTokenRepository.findByTokenHash(hash(refreshToken));
+            if (stored.isPresent()) {
+                user = stored.get().getUser();
+                refreshTokenRepository.revokeFamily(stored.get().getFamilyId(), now);
+            }
+        }
+        if (accessToken != null) {
+            try {
+                Claims claims = jwtTokenProvider.getAllClaimsFromToken(accessToken);
+                tokenDenylist.revoke(claims.getId(), claims.getExpiration().getTime());
+                if (user == null) {
+                    user = userRepository.findByUsername(claims.getSubject()).orElse(null);
+                }
+            } catch (JwtException | IllegalArgumentException ex) {
+                // Expired or invalid access tokens need no revoking
+            }
+        }
+        if (allSessions && user != null) {
+            refreshTokenRepository.revokeAllForUser(user.getId(), now);
+            tokenDenylist.revokeAllFor(user.getUsername());
+        }
+    }
+
+    @Scheduled(cron = "${app.jwt.refresh-purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Purged {} expired refresh tokens", deleted);
+        }
+    }
+
+    private AuthenticationResponseDTO issue(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken stored = new RefreshToken();
+        stored.setTokenHash(hash(refreshToken));
+        stored.setFamilyId(familyId);
+        stored.setUser(user);
+        stored.setCreatedAt(LocalDateTime.now());
+        stored.setExpiresAt(LocalDateTime.now().plusNanos(refreshTtlMs * 1_000_000));
+        refreshTokenRepository.save(stored);
+
+        String firstName = null;
+        String lastName = null;
+        Long patientId = null;
+        Long doctorId = null;
+        if (user.getUserRole() == Role.ROLE_PATIENT) {
+            Optional<Patient> patientOpt = patientRepository.findByUserId(user.getId());
+            if (patientOpt.isPresent()) {
+                Patient patient = patientOpt.get();
+                patientId = patient.getId();
+                firstName = patient.getFirstName();
+                lastName = patient.getLastName();
+            }
+        } else if (user.getUserRole() == Role.ROLE_DOCTOR) {
+            doctorId = doctorRepository.findByUserId(user.getId()).map(Doctor::getId).orElse(null);
+        }
+
+        // Identity claims spare later requests from looking the user up
+        return AuthenticationResponseDTO.builder()
+                .token(jwtTokenProvider.generateToken(user, patientId, doctorId))
+                .tokenType("Bearer")
+                .expiresIn(jwtTokenProvider.getExpirationMs() / 1000)
+                .refreshToken(refreshToken)
+                .userId(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .firstName(firstName)
+                .lastName(lastName)
+                .role(user.getUserRole().name())
+                .build();
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.healthcare.appointmentsystem.service.impl;
+
+import com.healthcare.appointmentsystem.dto.ChangeEventDTO;
+import com.healthcare.appointmentsystem.event.AppointmentChangedEvent;
+import com.healthcare.appointmentsystem.event.AvailabilityChangedEvent;
+import com.healthcare.appointmentsystem.event.WaitlistOfferedEvent;
+import com.healthcare.appointmentsystem.service.ChangeFeedService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans appointment and availability events out to SSE subscribers.
+ *
+ * Every subscriber owns a bounded queue. Publishing only enqueues and never
+ * blocks the request thread; a small dispatcher pool drains the queues and
+ * writes to the emitters. When a slow client lets its queue fill up, new
+ * events are dropped and the client receives a "resync" event telling it
+ * to reload its data once instead of replaying everything it missed.
+ * Doctor feeds opened by anyone but that doctor or an admin carry no
+ * patient ids.
+ */
+@Service
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedServiceImpl.class);
+
+    private final ConcurrentHashMap<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher;
+    private final int bufferSize;
+    private final long timeoutMs;
+
+    public ChangeFeedServiceImpl(
+            @Value("${app.feed.buffer-size:256}") int bufferSize,
+            @Value("${app.feed.timeout-ms:1800000}") long timeoutMs,
+            @Value("${app.feed.dispatch-threads:2}") int dispatchThreads) {
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads);
+    }
+
+    @Override
+    public SseEmitter subscribeToDoctor(Long doctorId, boolean includePatientIds) {
+        return subscribe(doctorKey(doctorId), includePatientIds);
+    }
+
+    @Override
+    public SseEmitter subscribeToPatient(Long patientId) {
+        return subscribe(patientKey(patientId), true);
+    }
+
+    // Runs after commit so subscribers never see changes that were rolled back
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        ChangeEventDTO dto = ChangeEventDTO.builder()
+                .resource("appointment")
+                .changeType(event.getChangeType().name())
+                .appointmentId(event.getAppointmentId())
+                .doctorId(event.getDoctorId())
+                .patientId(event.getPatientId())
+                .appointmentDateTime(event.getAppointmentDateTime())
+                .endDateTime(event.getEndDateTime())
+                .status(event.getStatus())
+                .occurredAt(event.getOccurredAt())
+                .build();
+        publish(doctorKey(event.getDoctorId()), dto);
+        publish(patientKey(event.getPatientId()), dto);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        ChangeEventDTO dto = ChangeEventDTO.builder()
+                .resource("availability")
+                .changeType(event.getChangeType().name())
+                .availabilityId(event.getAvailabilityId())
+                .doctorId(event.getDoctorId())
+                .dayOfWeek(event.getDayOfWeek())
+                .specificDate(event.getSpecificDate())
+                .occurredAt(event.getOccurredAt())
+                .build();
+        publish(doctorKey(event.getDoctorId()), dto);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWaitlistOffered(WaitlistOfferedEvent event) {
+        ChangeEventDTO dto = ChangeEventDTO.builder()
+                .resource("waitlist")
+                .changeType("OFFERED")
+                .waitlistEntryId(event.getWaitlistEntryId())
+                .doctorId(event.getDoctorId())
+                .patientId(event.getPatientId())
+                .appointmentDateTime(event.getStartTime())
+                .endDateTime(event.getEndTime())
+                .occurredAt(event.getOccurredAt())
+                .build();
+        publish(patientKey(event.getPatientId()), dto);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(s -> s.emitter.complete()));
+        subscribers.clear();
+    }
+
+    private SseEmitter subscribe(String key, boolean includePatientIds) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, bufferSize, includePatientIds);
+        subscribers.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        Runnable remove = () -> unsubscribe(key, subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(ex -> remove.run());
+        return emitter;
+    }
+
+    private void unsubscribe(String key, Subscriber subscriber) {
+        subscribers.computeIfPresent(key, (k, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private void publish(String key, ChangeEventDTO event) {
+        ChangeEventDTO redacted = null;
+        for (Subscriber subscriber : subscribers.getOrDefault(key, Set.of())) {
+            ChangeEventDTO visible = event;
+            if (!subscriber.includePatientIds && event.getPatientId() != null) {
+                if (redacted == null) {
+                    redacted = event.toBuilder().patientId(null).build();
+                }
+                visible = redacted;
+            }
+            if (!subscriber.queue.offer(visible)) {
+                subscriber.overflowed.set(true);
+            }
+            scheduleDrain(key, subscriber);
+        }
+    }
+
+    private void scheduleDrain(String key, Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> drain(key, subscriber));
+            } catch (RejectedExecutionException ex) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(String key, Subscriber subscriber) {
+        try {
+            if (subscriber.overflowed.getAndSet(false)) {
+                subscriber.queue.clear();
+                subscriber.emitter.send(SseEmitter.event().name("resync").data("buffer overflow"));
+            }
+            ChangeEventDTO event;
+            while ((event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event().name(event.getResource()).data(event));
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // Client went away, drop the subscription
+            logger.debug("Dropping change feed subscriber for {}", key, ex);
+            unsubscribe(key, subscriber);
+            subscriber.emitter.completeWithError(ex);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // Events may have arrived between the last poll and releasing the flag
+        if (!subscriber.queue.isEmpty() || subscriber.overflowed.get()) {
+            scheduleDrain(key, subscriber);
+        }
+    }
+
+    private static String doctorKey(Long doctorId) {
+        return "doctor:" + doctorId;
+    }
+
+    private static String patientKey(Long patientId) {
+        return "patient:" + patientId;
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<ChangeEventDTO> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean overflowed = new AtomicBoolean();
+        private final boolean includePatientIds;
+
+        private Subscriber(SseEmitter emitter, int bufferSize, boolean includePatientIds) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+            this.includePatientIds = includePatientIds;
+        }
+    }
+}
@@ -1,19 +1,35 @@
 package com.healthcare.appointmentsystem.service.impl;
 
 import com.healthcare.appointmentsystem.dto.TimeSlotDTO;
+import com.healthcare.appointmentsystem.dto.VersionStampDTO;
+import com.healthcare.appointmentsystem.event.AvailabilityChangedEvent;
+import com.healthcare.appointmentsystem.event.ChangeType;
 import com.healthcare.appointmentsystem.exception.BadRequestException;
 import com.healthcare.appointmentsystem.exception.ConflictException;
 import com.healthcare.appointmentsystem.exception.ResourceNotFoundException;
-import com.healthcare.appointmentsystem.model.Appointment;
 import com.healthcare.appointmentsystem.model.AppointmentStatus;
 import com.healthcare.appointmentsystem.model.Doctor;
 import com.healthcare.appointmentsystem.model.DoctorAvailability;
 import com.healthcare.appointmentsystem.repository.AppointmentRepository;
 import com.healthcare.appointmentsystem.repository.DoctorAvailabilityRepository;
 import com.healthcare.appointmentsystem.repository.DoctorRepository;
+import com.healthcare.appointmentsystem.schedule.BookedInterval;
+import com.healthcare.appointmentsystem.schedule.ClinicDaySlotTask;
+import com.healthcare.appointmentsystem.schedule.DayOccupancy;
+import com.healthcare.appointmentsystem.schedule.EffectiveSchedule;
+import com.healthcare.appointmentsystem.schedule.FreeSlot;
+import com.healthcare.appointmentsystem.schedule.FreeSlotIterator;
+import com.healthcare.appointmentsystem.schedule.OccupancyStore;
+import com.healthcare.appointmentsystem.schedule.ScheduleWindow;
+import com.healthcare.appointmentsystem.schedule.SlotHoldRegistry;
 import com.healthcare.appointmentsystem.service.DoctorAvailabilityService;
+import com.healthcare.appointmentsystem.util.TimeCodec;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cglib.core.Local;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.DayOfWeek;
@@ -22,7 +38,16 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,6 +62,35 @@ public class DoctorAvailabilityServiceImpl implements DoctorAvailabilityService
     @Autowired
     private AppointmentRepository appointmentRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EffectiveSchedule effectiveSchedule;
+
+    @Autowired
+    private OccupancyStore occupancyStore;
+
+    @Autowired
+    private SlotHoldRegistry slotHolds;
+
+    @Autowired
+    @Qualifier("slotSearchExecutor")
+    private Executor slotSearchExecutor;
+
+    @Autowired
+    @Qualifier("slotComputePool")
+    private ForkJoinPool slotComputePool;
+
+    @Value("${app.slot-compute.doctors-per-task:16}")
+    private int doctorsPerTask;
+
+    @Value("${app.slot-search.max-horizon-days:90}")
+    private int maxHorizonDays;
+
+    @Value("${app.slot-search.max-results:50}")
+    private int maxResults;
+
     @Override
     public DoctorAvailability createDoctorAvailability(DoctorAvailability doctorAvailability) {
         if(doctorAvailability == null){
@@ -53,21 +107,27 @@ public class DoctorAvailabilityServiceImpl implements DoctorAvailabilityService
         }
         checkForOverlappingAvailability(doctorAvailability);
 
-        return availabilityRepository.save(doctorAvailability);
+        DoctorAvailability savedAvailability = availabilityRepository.save(doctorAvailability);
+        eventPublisher.publishEvent(AvailabilityChangedEvent.of(ChangeType.CREATED, savedAvailability));
+        return savedAvailability;
     }
     @Override
+    @Transactional
     public DoctorAvailability updateDoctorAvailability(DoctorAvailability doctorAvailability) {
         DoctorAvailability existingAvailability = findDoctorAvailabilityById(doctorAvailability.getId());
 
         checkForOverlappingAvailability(existingAvailability);
 
-        return availabilityRepository.save(existingAvailability);
+        DoctorAvailability savedAvailability = availabilityRepository.save(existingAvailability);
+        eventPublisher.publishEvent(AvailabilityChangedEvent.of(ChangeType.UPDATED, savedAvailability));
+        return savedAvailability;
     }
 
     @Override
     public void deleteDoctorAvailability(Long id){
         DoctorAvailability availability = findDoctorAvailabilityById(id);
         availabilityRepository.delete(availability);
+        eventPublisher.publishEvent(AvailabilityChangedEvent.of(ChangeType.DELETED, availability));
     }
 
     @Override
@@ -102,58 +162,31 @@ public class DoctorAvailabilityServiceImpl implements DoctorAvailabilityService
     }
     @Override
     public boolean isTimeSlotAvailable(Long doctorId, LocalDate date, LocalTime time){
-        List<DoctorAvailability> doctorAvailabilities = findDoctorAvailabilityByDoctorIdAndSpecificDate(doctorId, date);
-        return doctorAvailabilities.stream().anyMatch(a -> a.isAvailable() && a.containsTime(time));
+        // Same resolved windows as isDoctorAvailableAt, so the two can no longer disagree
+        return isDoctorAvailableAt(doctorId, date, time);
     }
 
     @Override
     public List<TimeSlotDTO> getAvailableTimeSlots(Long doctorID, LocalDate date){
+        return getAvailableTimeSlots(doctorID, date, null);
+    }
+
+    @Override
+    public List<TimeSlotDTO> getAvailableTimeSlots(Long doctorID, LocalDate date, Integer durationMinutes){
+        if (durationMinutes != null && (durationMinutes < 1 || durationMinutes > DayOccupancy.MINUTES_PER_DAY)) {
+            throw new BadRequestException("Duration must be between 1 and " + DayOccupancy.MINUTES_PER_DAY + " minutes");
+        }
         Doctor doctor = doctorRepository.findById(doctorID)
                 .orElseThrow(() -> new RuntimeException("Doctor not found"));
-        List<DoctorAvailability> availabilities = findDoctorAvailabilityByDoctorIdAndSpecificDate(doctorID, date);
+        List<ScheduleWindow> windows = effectiveSchedule.getWindows(doctorID, date);
+        // Booked minutes come from the occupancy bitmap instead of scanning every appointment
+        DayOccupancy occupancy = occupancyStore.get(doctorID, date);
 
-        List <Appointment> appointments = appointmentRepository.findAppointmentByDoctorId(doctorID)
-                        .stream()
-                        .filter(a -> a.getStatus() != AppointmentStatus.CANCELLED)
-                        .toList();
         List<TimeSlotDTO> slots = new ArrayList<>();
-        for (DoctorAvailability availability : availabilities) {
-            if(!availability.isAvailable()){
-                continue;
-            }
-            // Generate time slots
-            LocalTime currentTime = availability.getStartTime();
-            int slotDuration = availability.getSlotDuration();
-            while(currentTime.plusMinutes(slotDuration).isBefore(availability.getEndTime()) ||
-            currentTime.plusMinutes(slotDuration).equals(availability.getEndTime())){
-
-                LocalDateTime slotStart = LocalDateTime.of(date, currentTime);
-                LocalDateTime slotEnd = slotStart.plusMinutes(slotDuration);
-                boolean isAvailable = true;
-                for(Appointment appointment : appointments){
-                    LocalDateTime appointmentStart = appointment.getAppointmentDateTime();
-                    LocalDateTime appointmentEnd = appointment.getEndDateTime();
-                    if((slotStart.isBefore(appointmentStart) || slotStart.equals(appointmentEnd)) &&
-                            (slotEnd.isAfter(appointmentStart) || slotEnd.equals(appointmentStart))){
-                        isAvailable = false;
-                        break;
-
-                    }
-                }
-                if(isAvailable){
-                    TimeSlotDTO slot = TimeSlotDTO.builder()
-                            .startTime(LocalDate.from(slotStart))
-                            .endTime(LocalDate.from(slotEnd))
-                            .available(true)
-                            .doctorId(doctorID)
-                            .doctorName(doctor.getFirstName() + " " + doctor.getLastName())
-                            .build();
-                    slots.add(slot);
-                }
-                currentTime = currentTime.plusMinutes(slotDuration);
-            }
-        }
+        ClinicDaySlotTask.collectFreeSlots(doctor, date, windows, occupancy,
+                durationMinutes == null ? 0 : durationMinutes, slots);
         return slots.stream()
+                .filter(slot -> !isHeld(slot))
                 .sorted(Comparator.comparing(TimeSlotDTO::getStartTime)).collect(Collectors.toList());
 
 
@@ -173,24 +206,152 @@ public class DoctorAvailabilityServiceImpl implements DoctorAvailabilityService
             throw new BadRequestException("Doctor ID, date, and time cannot be null");
         }
 
-        // Get the day of week from the date
-        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        // Overrides are already resolved against the recurring rules, this is a keyed lookup
+        return findWindow(doctorId, date, TimeCodec.toMinuteOfDay(time)) != null;
+    }
 
-        // Find all availabilities for this doctor on this date (specific date entries or recurring weekly entries)
-        List<DoctorAvailability> availabilities = availabilityRepository.findAvailabilitiesForDate(
-                doctorId, date, dayOfWeek);
+    @Override
+    public Optional<ScheduleWindow> findWindowAt(Long doctorId, LocalDateTime time) {
+        if (doctorId == null || time == null) {
+            throw new BadRequestException("Doctor ID and time cannot be null");
+        }
+        return Optional.ofNullable(findWindow(doctorId, time.toLocalDate(), TimeCodec.toMinuteOfDay(time.toLocalTime())));
+    }
 
-        // If no availabilities found, doctor is not available
-        if (availabilities.isEmpty()) {
-            return false;
+    private ScheduleWindow findWindow(Long doctorId, LocalDate date, int minuteOfDay) {
+        for (ScheduleWindow window : effectiveSchedule.getWindows(doctorId, date)) {
+            if (window.contains(minuteOfDay)) {
+                return window;
+            }
         }
+        return null;
+    }
+    @Override
+    public List<VersionStampDTO> getTimeSlotVersionStamps(Long doctorId, LocalDate date) {
+        // Slots depend on the doctor's availability rows and that day's appointments
+        return List.of(
+                availabilityRepository.findVersionStampByDoctorId(doctorId),
+                appointmentRepository.findVersionStampByDoctorIdAndDate(
+                        doctorId, date.atStartOfDay(), date.plusDays(1).atStartOfDay()));
+    }
 
-        // Check if the requested time falls within any of the doctor's available time slots
-        return availabilities.stream().anyMatch(availability ->
-                time.equals(availability.getStartTime()) || time.equals(availability.getEndTime()) ||
-                        (time.isAfter(availability.getStartTime()) && time.isBefore(availability.getEndTime()))
-        );
+    @Override
+    public long getHoldGeneration(Long doctorId) {
+        // Holds are not in the database, so the version stamps cannot see them
+        return slotHolds.generation(doctorId);
+    }
+    /**
+     * K-way merge over one lazy free-slot iterator per doctor. Every doctor's
+     * first slot is found in parallel on the bounded search pool; after that
+     * the queue only advances the doctor whose slot was just taken, so the
+     * search stops as soon as the first limit slots are known.
+     */
+    @Override
+    public List<TimeSlotDTO> findNextAvailableSlots(String specialization, LocalDate fromDate, int horizonDays, int limit) {
+        if (specialization == null || specialization.isBlank()) {
+            throw new BadRequestException("Specialization is required");
+        }
+        if (horizonDays < 1 || horizonDays > maxHorizonDays) {
+            throw new BadRequestException("Horizon must be between 1 and " + maxHorizonDays + " days");
+        }
+        if (limit < 1 || limit > maxResults) {
+            throw new BadRequestException("Limit must be between 1 and " + maxResults);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        long notBefore = fromDate == null || !fromDate.isAfter(now.toLocalDate())
+                ? TimeCodec.toEpochMinute(now) : TimeCodec.toEpochMinute(fromDate);
+        long lastDay = TimeCodec.epochDay(notBefore) + horizonDays - 1;
+
+        Map<Long, Doctor> doctors = doctorRepository.findDoctorBySpecialization(specialization).stream()
+                .collect(Collectors.toMap(Doctor::getId, Function.identity()));
+        if (doctors.isEmpty()) {
+            return List.of();
+        }
+
+        List<CompletableFuture<FreeSlotIterator>> firstSlots = doctors.keySet().stream()
+                .map(doctorId -> CompletableFuture.supplyAsync(() -> {
+                    FreeSlotIterator iterator = new FreeSlotIterator(
+                            doctorId, effectiveSchedule, occupancyStore, notBefore, lastDay);
+                    iterator.advance();
+                    return iterator;
+                }, slotSearchExecutor))
+                .toList();
+
+        PriorityQueue<FreeSlotIterator> queue = new PriorityQueue<>(Comparator
+                .comparingLong((FreeSlotIterator it) -> it.current().getStartMinute())
+                .thenComparing(it -> it.current().getDoctorId()));
+        for (CompletableFuture<FreeSlotIterator> future : firstSlots) {
+            FreeSlotIterator iterator = future.join();
+            if (iterator.current() != null) {
+                queue.add(iterator);
+            }
+        }
+
+        List<TimeSlotDTO> slots = new ArrayList<>(limit);
+        while (slots.size() < limit && !queue.isEmpty()) {
+            FreeSlotIterator iterator = queue.poll();
+            FreeSlot slot = iterator.current();
+            if (slotHolds.isHeldByOther(slot.getDoctorId(), slot.getStartMinute(), slot.getEndMinute(), null)) {
+                if (iterator.advance() != null) {
+                    queue.add(iterator);
+                }
+                continue;
+            }
+            Doctor doctor = doctors.get(slot.getDoctorId());
+            slots.add(TimeSlotDTO.builder()
+                    .startTime(TimeCodec.toLocalDateTime(slot.getStartMinute()))
+                    .endTime(TimeCodec.toLocalDateTime(slot.getEndMinute()))
+                    .available(true)
+                    .doctorId(doctor.getId())
+                    .doctorName(doctor.getFirstName() + " " + doctor.getLastName())
+                    .build());
+            if (iterator.advance() != null) {
+                queue.add(iterator);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Bulk variant of getAvailableTimeSlots: one query for the day's
+     * availabilities, one for the bookings (previous day included for
+     * appointments crossing midnight), then the per-doctor work is split
+     * across the fork-join pool.
+     */
+    @Override
+    public List<TimeSlotDTO> getClinicTimeSlots(LocalDate date) {
+        if (date == null) {
+            throw new BadRequestException("Date is required");
+        }
+        Map<Long, Doctor> doctors = new LinkedHashMap<>();
+        Map<Long, List<DoctorAvailability>> rulesByDoctor = new HashMap<>();
+        for (DoctorAvailability rule : availabilityRepository.findAllAvailabilitiesForDate(date, date.getDayOfWeek())) {
+            Doctor doctor = rule.getDoctor();
+            doctors.putIfAbsent(doctor.getId(), doctor);
+            rulesByDoctor.computeIfAbsent(doctor.getId(), id -> new ArrayList<>()).add(rule);
+        }
+        if (doctors.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<BookedInterval>> bookingsByDoctor = appointmentRepository
+                .findBookedIntervalsBetween(date.minusDays(1).atStartOfDay(), date.plusDays(1).atStartOfDay())
+                .stream()
+                .filter(booking -> rulesByDoctor.containsKey(booking.getDoctorId()))
+                .collect(Collectors.groupingBy(BookedInterval::getDoctorId));
+
+        List<TimeSlotDTO> slots = slotComputePool.invoke(new ClinicDaySlotTask(
+                new ArrayList<>(doctors.values()), date, rulesByDoctor, bookingsByDoctor, doctorsPerTask));
+        slots.removeIf(this::isHeld);
+        slots.sort(Comparator.comparing(TimeSlotDTO::getStartTime).thenComparing(TimeSlotDTO::getDoctorId));
+        return slots;
+    }
+
+    // Slots held during someone's checkout are not offered to others
+    private boolean isHeld(TimeSlotDTO slot) {
+        return slotHolds.isHeldByOther(slot.getDoctorId(),
+                TimeCodec.toEpochMinute(slot.getStartTime()), TimeCodec.toEpochMinute(slot.getEndTime()), null);
     }
+
    private void checkForOverlappingAvailability(DoctorAvailability doctorAvailability){
         List<DoctorAvailability> existingAvailability;
 
@@ -1,9 +1,18 @@
 package com.healthcare.appointmentsystem.service.impl;
 
+import com.healthcare.appointmentsystem.datasource.ReadOnlyTransactional;
+import com.healthcare.appointmentsystem.dto.DoctorSearchResultDTO;
+import com.healthcare.appointmentsystem.dto.VersionStampDTO;
+import com.healthcare.appointmentsystem.event.ChangeType;
+import com.healthcare.appointmentsystem.event.DoctorChangedEvent;
+import com.healthcare.appointmentsystem.exception.BadRequestException;
 import com.healthcare.appointmentsystem.model.Doctor;
 import com.healthcare.appointmentsystem.repository.DoctorRepository;
+import com.healthcare.appointmentsystem.search.DoctorSearchIndex;
 import com.healthcare.appointmentsystem.service.DoctorService;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -15,7 +24,16 @@ public class DoctorServiceImpl implements DoctorService {
     @Autowired
     private DoctorRepository doctorRepository;
 
+    @Autowired
+    private DoctorSearchIndex doctorSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     @Override
+    @ReadOnlyTransactional
     public List<Doctor> getAllDoctors() {
         return doctorRepository.findAll();
     }
@@ -26,27 +44,51 @@ public class DoctorServiceImpl implements DoctorService {
     }
 
     @Override
+    @ReadOnlyTransactional
     public List<Doctor> getDoctorsBySpecialization(String specialization) {
         return doctorRepository.findDoctorBySpecialization(specialization);
     }
 
     @Override
+    @Transactional
     public Doctor createDoctor(Doctor doctor) {
-        return doctorRepository.save(doctor);
+        Doctor saved = doctorRepository.save(doctor);
+        eventPublisher.publishEvent(DoctorChangedEvent.of(ChangeType.CREATED, saved.getId()));
+        return saved;
     }
 
     @Override
+    @Transactional
     public Doctor updateDoctor(Doctor doctor) {
-        return doctorRepository.save(doctor);
+        Doctor saved = doctorRepository.save(doctor);
+        eventPublisher.publishEvent(DoctorChangedEvent.of(ChangeType.UPDATED, saved.getId()));
+        return saved;
     }
 
     @Override
+    @Transactional
     public void deleteDoctor(Long id) {
         doctorRepository.deleteById(id);
+        eventPublisher.publishEvent(DoctorChangedEvent.of(ChangeType.DELETED, id));
     }
 
     @Override
     public boolean existsByLicenseNumber(String licenseNumber) {
         return doctorRepository.existsByLicenseNumber(licenseNumber);
     }
-}
\ No newline at end of file
+
+    @Override
+    @ReadOnlyTransactional
+    public VersionStampDTO getDirectoryVersionStamp() {
+        return doctorRepository.findDirectoryVersionStamp();
+    }
+
+    // Served from the in-memory index, the database is not queried
+    @Override
+    public List<DoctorSearchResultDTO> searchDoctors(String query, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+        return doctorSearchIndex.search(query, limit);
+    }
+}
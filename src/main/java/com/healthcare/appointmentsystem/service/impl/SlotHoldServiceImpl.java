@@ -0,0 +1,97 @@
+package com.healthcare.appointmentsystem.service.impl;
+
+import com.healthcare.appointmentsystem.dto.SlotHoldDTO;
+import com.healthcare.appointmentsystem.dto.SlotHoldRequestDTO;
+import com.healthcare.appointmentsystem.exception.BadRequestException;
+import com.healthcare.appointmentsystem.exception.ConflictException;
+import com.healthcare.appointmentsystem.exception.ResourceNotFoundException;
+import com.healthcare.appointmentsystem.repository.PatientRepository;
+import com.healthcare.appointmentsystem.schedule.OccupancyStore;
+import com.healthcare.appointmentsystem.schedule.ScheduleWindow;
+import com.healthcare.appointmentsystem.schedule.SlotHold;
+import com.healthcare.appointmentsystem.schedule.SlotHoldRegistry;
+import com.healthcare.appointmentsystem.security.UserPrincipal;
+import com.healthcare.appointmentsystem.service.DoctorAvailabilityService;
+import com.healthcare.appointmentsystem.service.SlotHoldService;
+import com.healthcare.appointmentsystem.util.TimeCodec;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+@Service
+public class SlotHoldServiceImpl implements SlotHoldService {
+
+    private final SlotHoldRegistry holdRegistry;
+    private final DoctorAvailabilityService availabilityService;
+    private final OccupancyStore occupancyStore;
+    private final PatientRepository patientRepository;
+
+    public SlotHoldServiceImpl(SlotHoldRegistry holdRegistry, DoctorAvailabilityService availabilityService,
+                               OccupancyStore occupancyStore, PatientRepository patientRepository) {
+        this.holdRegistry = holdRegistry;
+        this.availabilityService = availabilityService;
+        this.occupancyStore = occupancyStore;
+        this.patientRepository = patientRepository;
+    }
+
+    // Only bitmap and in-memory checks, holding a slot never touches the appointments table
+    @Override
+    public SlotHoldDTO placeHold(SlotHoldRequestDTO request) {
+        // Patients hold for themselves (pid claim); only admins may name the patient
+        Long patientId = UserPrincipal.resolvePatientId(request.getPatientId());
+        if (request.getDoctorId() == null || patientId == null || request.getStartTime() == null) {
+            throw new BadRequestException("Doctor, patient and start time are required");
+        }
+        if (!request.getStartTime().isAfter(LocalDateTime.now())) {
+            throw new BadRequestException("Cannot hold a slot in the past");
+        }
+        if (!patientRepository.existsById(patientId)) {
+            throw new ResourceNotFoundException("Patient", "id", patientId);
+        }
+        ScheduleWindow window = availabilityService.findWindowAt(request.getDoctorId(), request.getStartTime())
+                .orElseThrow(() -> new ConflictException("Doctor is not available at this time"));
+        int duration = request.getDurationMinutes() != null ? request.getDurationMinutes() : window.getSlotDuration();
+        if (duration < 1) {
+            throw new BadRequestException("Duration must be at least 1 minute");
+        }
+        long start = TimeCodec.toEpochMinute(request.getStartTime());
+        long end = start + duration;
+        if (!occupancyStore.isFree(request.getDoctorId(), start, end)) {
+            throw new ConflictException("This time slot is no longer available");
+        }
+        return toDTO(holdRegistry.place(request.getDoctorId(), patientId, start, end));
+    }
+
+    @Override
+    public SlotHoldDTO findHoldById(String holdId) {
+        return toDTO(findOwnHold(holdId));
+    }
+
+    @Override
+    public void releaseHold(String holdId) {
+        findOwnHold(holdId);
+        if (!holdRegistry.release(holdId)) {
+            throw new ResourceNotFoundException("Slot hold", "id", holdId);
+        }
+    }
+
+    // Someone else's hold looks the same as a missing one, hold ids are not revealed
+    private SlotHold findOwnHold(String holdId) {
+        return holdRegistry.get(holdId)
+                .filter(hold -> UserPrincipal.canAccessPatient(hold.getPatientId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Slot hold", "id", holdId));
+    }
+
+    private SlotHoldDTO toDTO(SlotHold hold) {
+        return SlotHoldDTO.builder()
+                .holdId(hold.getHoldId())
+                .doctorId(hold.getDoctorId())
+                .patientId(hold.getPatientId())
+                .startTime(TimeCodec.toLocalDateTime(hold.getStartMinute()))
+                .endTime(TimeCodec.toLocalDateTime(hold.getEndMinute()))
+                .expiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(hold.getExpiresAtMs()), ZoneId.systemDefault()))
+                .build();
+    }
+}
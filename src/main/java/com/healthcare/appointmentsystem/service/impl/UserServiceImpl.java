@@ -1,20 +1,32 @@
 package com.healthcare.appointmentsystem.service.impl;
 
+import com.healthcare.appointmentsystem.dto.UserResponseDTO;
+import com.healthcare.appointmentsystem.dto.UserUpdateRequestDTO;
+import com.healthcare.appointmentsystem.exception.BadRequestException;
+import com.healthcare.appointmentsystem.exception.ResourceNotFoundException;
+import com.healthcare.appointmentsystem.model.Patient;
 import com.healthcare.appointmentsystem.model.User;
+import com.healthcare.appointmentsystem.repository.PatientRepository;
 import com.healthcare.appointmentsystem.repository.UserRepository;
 import com.healthcare.appointmentsystem.service.UserService;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
 public class UserServiceImpl implements UserService {
     
     @Autowired
     private UserRepository userRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
     
     @Override
     public User createUser(User user) {
@@ -61,4 +73,61 @@ public class UserServiceImpl implements UserService {
         return userRepository.findByEmail(email);
     }
 
-}
\ No newline at end of file
+    /**
+     * Applies a profile update to the managed User and Patient entities.
+     * Both entities use @DynamicUpdate, so dirty checking only writes the
+     * columns that actually changed when the transaction commits. Email
+     * uniqueness is left to the unique constraint instead of a separate lookup,
+     * and @Version guards against lost updates from concurrent edits.
+     */
+    @Override
+    @Transactional
+    public UserResponseDTO updateProfile(String username, UserUpdateRequestDTO updateRequest) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+        Patient patient = patientRepository.findByUserId(user.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Patient", "userId", user.getId()));
+
+        boolean emailChanged = applyIfChanged(updateRequest.getEmail(), user::getEmail, user::setEmail);
+        applyIfChanged(updateRequest.getFirstName(), patient::getFirstName, patient::setFirstName);
+        applyIfChanged(updateRequest.getLastName(), patient::getLastName, patient::setLastName);
+        applyIfChanged(updateRequest.getPhone(), patient::getPhone, patient::setPhone);
+        applyIfChanged(updateRequest.getAddress(), patient::getAddress, patient::setAddress);
+
+        if (emailChanged) {
+            // Flush now so a duplicate email surfaces here rather than at commit
+            try {
+                userRepository.flush();
+            } catch (DataIntegrityViolationException ex) {
+                throw new BadRequestException("Email is already taken", ex);
+            }
+        }
+
+        return UserResponseDTO.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .firstName(patient.getFirstName())
+                .lastName(patient.getLastName())
+                .phone(patient.getPhone())
+                .address(patient.getAddress())
+                .role(user.getUserRole().name())
+                .createdAt(user.getCreatedAt())
+                .lastLogin(user.getLastLogin())
+                .build();
+    }
+
+    // Only touch the field when a non-blank value differs from the current one
+    private boolean applyIfChanged(String value, Supplier<String> current, Consumer<String> setter) {
+        if (value == null || value.trim().isEmpty()) {
+            return false;
+        }
+        String trimmed = value.trim();
+        if (trimmed.equals(current.get())) {
+            return false;
+        }
+        setter.accept(trimmed);
+        return true;
+    }
+
+}
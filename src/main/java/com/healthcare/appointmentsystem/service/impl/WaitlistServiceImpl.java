@@ -0,0 +1,295 @@
+package com.healthcare.appointmentsystem.service.impl;
+
+import com.healthcare.appointmentsystem.dto.WaitlistRequestDTO;
+import com.healthcare.appointmentsystem.event.WaitlistOfferReleasedEvent;
+import com.healthcare.appointmentsystem.event.WaitlistOfferedEvent;
+import com.healthcare.appointmentsystem.exception.BadRequestException;
+import com.healthcare.appointmentsystem.exception.ConflictException;
+import com.healthcare.appointmentsystem.exception.ResourceNotFoundException;
+import com.healthcare.appointmentsystem.model.Appointment;
+import com.healthcare.appointmentsystem.model.AppointmentStatus;
+import com.healthcare.appointmentsystem.model.Doctor;
+import com.healthcare.appointmentsystem.model.Patient;
+import com.healthcare.appointmentsystem.model.WaitlistEntry;
+import com.healthcare.appointmentsystem.model.WaitlistStatus;
+import com.healthcare.appointmentsystem.repository.DoctorRepository;
+import com.healthcare.appointmentsystem.repository.PatientRepository;
+import com.healthcare.appointmentsystem.repository.WaitlistEntryRepository;
+import com.healthcare.appointmentsystem.security.UserPrincipal;
+import com.healthcare.appointmentsystem.service.AppointmentService;
+import com.healthcare.appointmentsystem.service.WaitlistService;
+import com.healthcare.appointmentsystem.util.TimeCodec;
+import com.healthcare.appointmentsystem.waitlist.WaitlistIndex;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistServiceImpl.class);
+
+    private final WaitlistEntryRepository waitlistRepository;
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final AppointmentService appointmentService;
+    private final WaitlistIndex waitlistIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxWindowDays;
+    private final long offerTtlMinutes;
+
+    public WaitlistServiceImpl(WaitlistEntryRepository waitlistRepository,
+                               PatientRepository patientRepository,
+                               DoctorRepository doctorRepository,
+                               AppointmentService appointmentService,
+                               WaitlistIndex waitlistIndex,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.waitlist.max-window-days:30}") int maxWindowDays,
+                               @Value("${app.waitlist.offer-ttl-minutes:30}") long offerTtlMinutes) {
+        this.waitlistRepository = waitlistRepository;
+        this.patientRepository = patientRepository;
+        this.doctorRepository = doctorRepository;
+        this.appointmentService = appointmentService;
+        this.waitlistIndex = waitlistIndex;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxWindowDays = maxWindowDays;
+        this.offerTtlMinutes = offerTtlMinutes;
+    }
+
+    @Override
+    @Transactional
+    public WaitlistEntry joinWaitlist(WaitlistRequestDTO request) {
+        // Patients join for themselves (pid claim); only admins may name the patient
+        Long patientId = UserPrincipal.resolvePatientId(request.getPatientId());
+        if (patientId == null) {
+            throw new BadRequestException("Patient is required");
+        }
+        Patient patient = patientRepository.findById(patientId)
+                .orElseThrow(() -> new ResourceNotFoundException("Patient", "id", patientId));
+        boolean hasSpecialization = request.getSpecialization() != null && !request.getSpecialization().isBlank();
+        if ((request.getDoctorId() == null) == !hasSpecialization) {
+            throw new BadRequestException("Specify either a doctor or a specialization");
+        }
+        if (request.getWindowStart() == null || request.getWindowEnd() == null
+                || !request.getWindowEnd().isAfter(request.getWindowStart())) {
+            throw new BadRequestException("Window end must be after window start");
+        }
+        if (!request.getWindowEnd().isAfter(LocalDateTime.now())) {
+            throw new BadRequestException("Window must end in the future");
+        }
+        if (Duration.between(request.getWindowStart(), request.getWindowEnd()).toDays() >= maxWindowDays) {
+            throw new BadRequestException("Window cannot be longer than " + maxWindowDays + " days");
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setPatient(patient);
+        if (request.getDoctorId() != null) {
+            entry.setDoctor(doctorRepository.findById(request.getDoctorId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Doctor", "id", request.getDoctorId())));
+        } else {
+            entry.setSpecialization(request.getSpecialization().trim());
+        }
+        entry.setWindowStart(request.getWindowStart());
+        entry.setWindowEnd(request.getWindowEnd());
+        entry.setAutoBook(request.isAutoBook());
+        WaitlistEntry saved = waitlistRepository.save(entry);
+        waitlistRepository.flush();
+        waitlistIndex.add(saved);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void leaveWaitlist(Long entryId) {
+        WaitlistEntry entry = findWaitlistEntryById(entryId);
+        waitlistIndex.remove(entryId);
+        if (entry.getStatus() == WaitlistStatus.WAITING || entry.getStatus() == WaitlistStatus.OFFERED) {
+            entry.setStatus(WaitlistStatus.CANCELLED);
+            waitlistRepository.save(entry);
+        }
+    }
+
+    @Override
+    @Transactional
+    public WaitlistEntry acceptOffer(Long entryId) {
+        WaitlistEntry entry = findWaitlistEntryById(entryId);
+        if (entry.getStatus() != WaitlistStatus.OFFERED) {
+            throw new ConflictException("There is no open offer for this waitlist entry");
+        }
+        // The offer did not hold the slot, booking runs the usual checks
+        Appointment appointment = book(entry, entry.getOfferedDoctorId(), entry.getOfferedStart(), entry.getOfferedEnd());
+        entry.setStatus(WaitlistStatus.BOOKED);
+        entry.setAppointmentId(appointment.getId());
+        return waitlistRepository.save(entry);
+    }
+
+    @Override
+    @Transactional
+    public WaitlistEntry declineOffer(Long entryId) {
+        WaitlistEntry entry = findWaitlistEntryById(entryId);
+        if (entry.getStatus() != WaitlistStatus.OFFERED) {
+            throw new ConflictException("There is no open offer for this waitlist entry");
+        }
+        return requeue(entry);
+    }
+
+    @Override
+    public WaitlistEntry findWaitlistEntryById(Long entryId) {
+        // Other patients' entries look missing, so accepting or leaving them is impossible too
+        return waitlistRepository.findById(entryId)
+                .filter(entry -> UserPrincipal.canAccessPatient(entry.getPatient().getId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry", "id", entryId));
+    }
+
+    @Override
+    public List<WaitlistEntry> findWaitlistEntriesByPatientId(Long patientId) {
+        if (!UserPrincipal.canAccessPatient(patientId)) {
+            throw new AccessDeniedException("Patients can only view their own waitlist entries");
+        }
+        if (!patientRepository.existsById(patientId)) {
+            throw new ResourceNotFoundException("Patient", "id", patientId);
+        }
+        return waitlistRepository.findByPatientIdOrderByCreatedAtDesc(patientId);
+    }
+
+    /**
+     * Hands a freed interval to the longest waiting candidate. Auto-book
+     * entries get an appointment, the others an offer. When booking fails,
+     * e.g. because the slot was taken in the meantime, the candidate goes
+     * back into the index and the slot is left alone.
+     */
+    @Override
+    public void backfill(Long doctorId, LocalDateTime start, LocalDateTime end) {
+        backfill(doctorId, start, end, null);
+    }
+
+    @Override
+    public void backfill(Long doctorId, LocalDateTime start, LocalDateTime end, Long excludedEntryId) {
+        if (start == null || end == null || !start.isAfter(LocalDateTime.now())) {
+            return;
+        }
+        Doctor doctor = doctorRepository.findById(doctorId).orElse(null);
+        if (doctor == null) {
+            return;
+        }
+        long startMinute = TimeCodec.toEpochMinute(start);
+        long endMinute = TimeCodec.toEpochMinute(end);
+        WaitlistIndex.Candidate candidate;
+        boolean excludedClaimed = false;
+        try {
+            while ((candidate = waitlistIndex.claimBest(doctorId, doctor.getSpecialization(), startMinute, endMinute)) != null) {
+                Long entryId = candidate.getEntryId();
+                // Set aside, it goes back into the index once the interval has been handed on
+                if (entryId.equals(excludedEntryId)) {
+                    excludedClaimed = true;
+                    continue;
+                }
+                try {
+                    Boolean handled = transactionTemplate.execute(status -> offerOrBook(entryId, doctorId, start, end));
+                    if (Boolean.TRUE.equals(handled)) {
+                        return;
+                    }
+                    // Stale entry, it is no longer waiting; try the next candidate
+                } catch (RuntimeException ex) {
+                    logger.info("Could not backfill slot of doctor {} at {} for waitlist entry {}: {}",
+                            doctorId, start, entryId, ex.getMessage());
+                    reindexIfWaiting(entryId);
+                    return;
+                }
+            }
+        } finally {
+            if (excludedClaimed) {
+                reindexIfWaiting(excludedEntryId);
+            }
+        }
+    }
+
+    // Rebuild the index from the database once the application is up
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        List<WaitlistEntry> waiting = waitlistRepository.findByStatus(WaitlistStatus.WAITING);
+        waiting.forEach(waitlistIndex::add);
+        logger.info("Indexed {} waiting waitlist entries", waiting.size());
+    }
+
+    // Unanswered offers go back to waiting, entries whose window has passed expire
+    @Scheduled(fixedDelayString = "${app.waitlist.sweep-interval-ms:60000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (WaitlistEntry entry : waitlistRepository.findOffersMadeBefore(
+                    WaitlistStatus.OFFERED, now.minusMinutes(offerTtlMinutes))) {
+                requeue(entry);
+            }
+            for (WaitlistEntry entry : waitlistRepository.findWindowsEndedBy(WaitlistStatus.WAITING, now)) {
+                waitlistIndex.remove(entry.getId());
+                entry.setStatus(WaitlistStatus.EXPIRED);
+                waitlistRepository.save(entry);
+            }
+        });
+    }
+
+    private boolean offerOrBook(Long entryId, Long doctorId, LocalDateTime start, LocalDateTime end) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId).orElse(null);
+        if (entry == null || entry.getStatus() != WaitlistStatus.WAITING) {
+            return false;
+        }
+        if (entry.isAutoBook()) {
+            Appointment appointment = book(entry, doctorId, start, end);
+            entry.setStatus(WaitlistStatus.BOOKED);
+            entry.setAppointmentId(appointment.getId());
+        } else {
+            entry.setStatus(WaitlistStatus.OFFERED);
+            entry.setOfferedDoctorId(doctorId);
+            entry.setOfferedStart(start);
+            entry.setOfferedEnd(end);
+            entry.setOfferedAt(LocalDateTime.now());
+            eventPublisher.publishEvent(new WaitlistOfferedEvent(
+                    entry.getId(), entry.getPatient().getId(), doctorId, start, end, LocalDateTime.now()));
+        }
+        waitlistRepository.save(entry);
+        return true;
+    }
+
+    private Appointment book(WaitlistEntry entry, Long doctorId, LocalDateTime start, LocalDateTime end) {
+        Doctor doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor", "id", doctorId));
+        Appointment appointment = new Appointment(doctor, entry.getPatient(), start, AppointmentStatus.SCHEDULED, "Booked from waitlist");
+        return appointmentService.createAppointment(appointment, (int) Duration.between(start, end).toMinutes(), null);
+    }
+
+    private void reindexIfWaiting(Long entryId) {
+        waitlistRepository.findById(entryId)
+                .filter(entry -> entry.getStatus() == WaitlistStatus.WAITING)
+                .ifPresent(waitlistIndex::add);
+    }
+
+    // The declined or expired offer's interval is free again and goes to the next candidate after commit
+    private WaitlistEntry requeue(WaitlistEntry entry) {
+        eventPublisher.publishEvent(new WaitlistOfferReleasedEvent(
+                entry.getId(), entry.getOfferedDoctorId(), entry.getOfferedStart(), entry.getOfferedEnd()));
+        entry.setStatus(WaitlistStatus.WAITING);
+        entry.clearOffer();
+        WaitlistEntry saved = waitlistRepository.save(entry);
+        if (saved.getWindowEnd().isAfter(LocalDateTime.now())) {
+            waitlistIndex.add(saved);
+        }
+        return saved;
+    }
+}
@@ -0,0 +1,72 @@
+package com.healthcare.appointmentsystem.util;
+
+import com.healthcare.appointmentsystem.dto.VersionStampDTO;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Helpers for building strong ETags from entity versions and evaluating
+ * If-Match headers against them.
+ */
+public final class ETags {
+
+    private ETags() {}
+
+    // Build a strong ETag from an @Version value
+    public static String of(Long version) {
+        return "\"" + (version == null ? 0L : version) + "\"";
+    }
+
+    // Build a strong ETag from one or more aggregate version stamps
+    public static String of(List<VersionStampDTO> stamps) {
+        return stamps.stream()
+                .map(VersionStampDTO::toString)
+                .collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    // Distinguish representations of the same rows, e.g. with and without archived history
+    public static String withVariant(String etag, String variant) {
+        return etag.substring(0, etag.length() - 1) + "-" + variant + "\"";
+    }
+
+    /**
+     * Checks an If-None-Match header against the current ETag.
+     * If-None-Match uses weak comparison, so a W/ prefix is ignored.
+     */
+    public static boolean isNotModified(String ifNoneMatch, String etag) {
+        if (!StringUtils.hasText(ifNoneMatch)) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks an If-Match header against the current version.
+     * A missing header matches (the update is unconditional), as does "*".
+     * Weak validators never match because If-Match requires strong comparison.
+     */
+    public static boolean matches(String ifMatch, Long version) {
+        if (!StringUtils.hasText(ifMatch)) {
+            return true;
+        }
+        String current = of(version);
+        for (String tag : ifMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || candidate.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
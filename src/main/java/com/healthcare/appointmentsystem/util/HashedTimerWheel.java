@@ -0,0 +1,70 @@
+package com.healthcare.appointmentsystem.util;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel for large numbers of short timeouts.
+ *
+ * A timeout goes into the bucket of its deadline tick modulo the wheel size,
+ * so scheduling is O(1) and every tick only looks at one bucket. Timeouts
+ * more than one rotation away stay in their bucket until their round comes.
+ * Expiry is only as precise as the tick; callers that need exact deadlines
+ * should also check them on read.
+ */
+public class HashedTimerWheel<T> {
+
+    private final long tickMs;
+    private final int mask;
+    private final Queue<Timeout<T>>[] buckets;
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(long tickMs, int wheelSize, long nowMs) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        }
+        this.tickMs = tickMs;
+        this.mask = wheelSize - 1;
+        this.buckets = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.currentTick = nowMs / tickMs;
+    }
+
+    public void schedule(T item, long deadlineMs) {
+        // Round up so nothing fires early, never into a tick that was already processed
+        long tick = Math.max((deadlineMs + tickMs - 1) / tickMs, currentTick);
+        buckets[(int) (tick & mask)].add(new Timeout<>(item, tick));
+    }
+
+    // Fires every timeout due up to now; after a long pause each bucket is visited at most once
+    public synchronized void advance(long nowMs, Consumer<T> onExpired) {
+        long target = nowMs / tickMs;
+        long last = Math.min(target, currentTick + mask);
+        for (long tick = currentTick; tick <= last; tick++) {
+            Iterator<Timeout<T>> iterator = buckets[(int) (tick & mask)].iterator();
+            while (iterator.hasNext()) {
+                Timeout<T> timeout = iterator.next();
+                if (timeout.tick <= target) {
+                    iterator.remove();
+                    onExpired.accept(timeout.item);
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, target + 1);
+    }
+
+    private static final class Timeout<T> {
+        private final T item;
+        private final long tick;
+
+        private Timeout(T item, long tick) {
+            this.item = item;
+            this.tick = tick;
+        }
+    }
+}
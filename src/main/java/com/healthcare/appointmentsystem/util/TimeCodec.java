@@ -0,0 +1,52 @@
+package com.healthcare.appointmentsystem.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Primitive encoding of times used inside the slot and conflict engines.
+ *
+ * Instants are minutes since 1970-01-01T00:00 in local time (epoch minutes)
+ * and times of day are minutes since midnight. Both are exact at the
+ * one-minute granularity of scheduling, compare with plain operators and
+ * cost no allocation; java.time objects are only built at the DTO boundary.
+ */
+public final class TimeCodec {
+
+    public static final int MINUTES_PER_DAY = 1440;
+
+    private TimeCodec() {}
+
+    public static long toEpochMinute(LocalDateTime time) {
+        return time.toLocalDate().toEpochDay() * MINUTES_PER_DAY + time.getHour() * 60 + time.getMinute();
+    }
+
+    public static long toEpochMinute(LocalDate date) {
+        return date.toEpochDay() * MINUTES_PER_DAY;
+    }
+
+    public static long toEpochMinute(long epochDay, int minuteOfDay) {
+        return epochDay * MINUTES_PER_DAY + minuteOfDay;
+    }
+
+    public static short toMinuteOfDay(LocalTime time) {
+        return (short) (time.getHour() * 60 + time.getMinute());
+    }
+
+    public static long epochDay(long epochMinute) {
+        return Math.floorDiv(epochMinute, MINUTES_PER_DAY);
+    }
+
+    public static short minuteOfDay(long epochMinute) {
+        return (short) Math.floorMod(epochMinute, MINUTES_PER_DAY);
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochMinute) {
+        return LocalDateTime.of(LocalDate.ofEpochDay(epochDay(epochMinute)), toLocalTime(minuteOfDay(epochMinute)));
+    }
+
+    public static LocalTime toLocalTime(int minuteOfDay) {
+        return LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+    }
+}
@@ -0,0 +1,130 @@
+package com.healthcare.appointmentsystem.waitlist;
+
+import com.healthcare.appointmentsystem.model.WaitlistEntry;
+import com.healthcare.appointmentsystem.util.TimeCodec;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory index of waiting entries, bucketed by doctor or specialization
+ * and by day. A freed slot only looks at the one or two buckets of its day,
+ * each ordered by entry id so the longest waiting patient comes first.
+ * Entries are claimed by removing them, so a candidate is handed out once
+ * even when several slots free up at the same time.
+ */
+@Component
+public class WaitlistIndex {
+
+    private final ConcurrentHashMap<String, ConcurrentSkipListSet<Candidate>> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Candidate> candidates = new ConcurrentHashMap<>();
+
+    public void add(WaitlistEntry entry) {
+        Candidate candidate = new Candidate(entry);
+        if (candidates.putIfAbsent(candidate.entryId, candidate) != null) {
+            return;
+        }
+        for (long day = TimeCodec.epochDay(candidate.windowStart); day <= TimeCodec.epochDay(candidate.windowEnd - 1); day++) {
+            buckets.computeIfAbsent(candidate.bucketKey(day), k -> new ConcurrentSkipListSet<>()).add(candidate);
+        }
+    }
+
+    // Returns false when the entry was not indexed or has already been claimed
+    public boolean remove(Long entryId) {
+        Candidate candidate = candidates.remove(entryId);
+        if (candidate == null) {
+            return false;
+        }
+        for (long day = TimeCodec.epochDay(candidate.windowStart); day <= TimeCodec.epochDay(candidate.windowEnd - 1); day++) {
+            String key = candidate.bucketKey(day);
+            buckets.computeIfPresent(key, (k, set) -> {
+                set.remove(candidate);
+                return set.isEmpty() ? null : set;
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Claims the longest waiting entry that wants this doctor, or this
+     * doctor's specialization, and whose window covers the whole interval
+     * (epoch minutes). Returns null when nobody fits.
+     */
+    public Candidate claimBest(Long doctorId, String specialization, long startMinute, long endMinute) {
+        long day = TimeCodec.epochDay(startMinute);
+        while (true) {
+            Candidate best = earlier(
+                    firstFitting(buckets.get(doctorKey(doctorId, day)), startMinute, endMinute),
+                    specialization == null ? null
+                            : firstFitting(buckets.get(specializationKey(specialization, day)), startMinute, endMinute));
+            if (best == null || remove(best.entryId)) {
+                return best;
+            }
+            // Lost the race for this entry, look again
+        }
+    }
+
+    public int size() {
+        return candidates.size();
+    }
+
+    private static Candidate firstFitting(Set<Candidate> bucket, long startMinute, long endMinute) {
+        if (bucket == null) {
+            return null;
+        }
+        for (Candidate candidate : bucket) {
+            if (candidate.windowStart <= startMinute && endMinute <= candidate.windowEnd) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static Candidate earlier(Candidate a, Candidate b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static String doctorKey(Long doctorId, long day) {
+        return "doctor:" + doctorId + ":" + day;
+    }
+
+    private static String specializationKey(String specialization, long day) {
+        return "specialization:" + specialization.toLowerCase(Locale.ROOT) + ":" + day;
+    }
+
+    @Getter
+    public static final class Candidate implements Comparable<Candidate> {
+        private final Long entryId;
+        private final Long doctorId;
+        private final String specialization;
+        private final long windowStart;
+        private final long windowEnd;
+
+        private Candidate(WaitlistEntry entry) {
+            this.entryId = entry.getId();
+            this.doctorId = entry.getDoctor() != null ? entry.getDoctor().getId() : null;
+            this.specialization = entry.getSpecialization();
+            this.windowStart = TimeCodec.toEpochMinute(entry.getWindowStart());
+            this.windowEnd = TimeCodec.toEpochMinute(entry.getWindowEnd());
+        }
+
+        private String bucketKey(long day) {
+            return doctorId != null ? doctorKey(doctorId, day) : specializationKey(specialization, day);
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            return Long.compare(entryId, other.entryId);
+        }
+    }
+}
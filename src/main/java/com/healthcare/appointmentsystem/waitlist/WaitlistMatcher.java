@@ -0,0 +1,43 @@
+package com.healthcare.appointmentsystem.waitlist;
+
+import com.healthcare.appointmentsystem.event.AppointmentChangedEvent;
+import com.healthcare.appointmentsystem.event.ChangeType;
+import com.healthcare.appointmentsystem.event.WaitlistOfferReleasedEvent;
+import com.healthcare.appointmentsystem.model.AppointmentStatus;
+import com.healthcare.appointmentsystem.service.WaitlistService;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Backfills slots freed by cancellations and deletions from the waitlist,
+ * and offers that were declined or timed out, to the next candidate.
+ * Runs after commit on the waitlist executor, never on the request thread.
+ */
+@Component
+public class WaitlistMatcher {
+
+    private final WaitlistService waitlistService;
+
+    public WaitlistMatcher(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    @Async("waitlistExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        boolean freed = (event.getChangeType() == ChangeType.DELETED && event.getStatus() != AppointmentStatus.CANCELLED)
+                || (event.getChangeType() == ChangeType.STATUS_CHANGED && event.getStatus() == AppointmentStatus.CANCELLED);
+        if (freed && event.getDoctorId() != null) {
+            waitlistService.backfill(event.getDoctorId(), event.getAppointmentDateTime(), event.getEndDateTime());
+        }
+    }
+
+    @Async("waitlistExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOfferReleased(WaitlistOfferReleasedEvent event) {
+        if (event.getDoctorId() != null) {
+            waitlistService.backfill(event.getDoctorId(), event.getStartTime(), event.getEndTime(), event.getWaitlistEntryId());
+        }
+    }
+}
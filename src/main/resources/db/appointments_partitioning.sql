@@ -0,0 +1,66 @@
+-- One-off migration: turns appointments into a table range-partitioned by
+-- month on appointment_date_time. Run during a maintenance window, the copy
+-- holds an exclusive lock on the old table. Afterwards
+-- AppointmentPartitionManager keeps creating upcoming months.
+--
+-- PostgreSQL requires the partition key in every unique constraint, so the
+-- primary key becomes (id, appointment_date_time). Ids still come from a
+-- single sequence and stay unique; the JPA mapping keeps using id alone.
+
+BEGIN;
+
+LOCK TABLE appointments IN ACCESS EXCLUSIVE MODE;
+
+ALTER TABLE appointments RENAME TO appointments_unpartitioned;
+
+CREATE SEQUENCE IF NOT EXISTS appointments_partitioned_id_seq;
+SELECT setval('appointments_partitioned_id_seq', COALESCE((SELECT MAX(id) FROM appointments_unpartitioned), 0) + 1, false);
+
+CREATE TABLE appointments (
+    id                    bigint       NOT NULL DEFAULT nextval('appointments_partitioned_id_seq'),
+    doctor_id             bigint       NOT NULL REFERENCES doctors (id),
+    patient_id            bigint       NOT NULL REFERENCES patients (id),
+    appointment_date_time timestamp(6) NOT NULL,
+    end_time              timestamp(6),
+    status                varchar(255) NOT NULL,
+    notes                 text,
+    reason                varchar(255) NOT NULL,
+    created_at            timestamp(6),
+    updated_at            timestamp(6),
+    version               bigint DEFAULT 0,
+    PRIMARY KEY (id, appointment_date_time)
+) PARTITION BY RANGE (appointment_date_time);
+
+ALTER SEQUENCE appointments_partitioned_id_seq OWNED BY appointments.id;
+
+-- Catches rows outside every monthly range instead of rejecting them
+CREATE TABLE appointments_default PARTITION OF appointments DEFAULT;
+
+-- One partition per month from the oldest appointment to three months ahead
+DO $$
+DECLARE
+    part_start date := date_trunc('month', COALESCE((SELECT MIN(appointment_date_time) FROM appointments_unpartitioned), now()));
+    last_start date := date_trunc('month', GREATEST(COALESCE((SELECT MAX(appointment_date_time) FROM appointments_unpartitioned), now()), now()))
+                  + interval '3 months';
+BEGIN
+    WHILE part_start <= last_start LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF appointments FOR VALUES FROM (%L) TO (%L)',
+                       'appointments_' || to_char(part_start, 'YYYY_MM'), part_start, part_start + interval '1 month');
+        part_start := part_start + interval '1 month';
+    END LOOP;
+END $$;
+
+-- Indexes on the parent are created on every partition, current and future
+CREATE INDEX idx_appointments_doctor_date ON appointments (doctor_id, appointment_date_time);
+CREATE INDEX idx_appointments_patient ON appointments (patient_id);
+CREATE INDEX idx_appointments_status_date ON appointments (status, appointment_date_time);
+
+INSERT INTO appointments (id, doctor_id, patient_id, appointment_date_time, end_time, status, notes, reason,
+                          created_at, updated_at, version)
+SELECT id, doctor_id, patient_id, appointment_date_time, end_time, status, notes, reason,
+       created_at, updated_at, version
+FROM appointments_unpartitioned;
+
+DROP TABLE appointments_unpartitioned;
+
+COMMIT;
@@ -0,0 +1,12 @@
+package com.healthcare.appointmentsystem;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Boot configuration for tests that start the application as one or more
+ * nodes, see support.TestNodes. Lives in the root package so entities and
+ * repositories are found the same way as in the application.
+ */
+@SpringBootApplication
+public class NodeTestApplication {
+}
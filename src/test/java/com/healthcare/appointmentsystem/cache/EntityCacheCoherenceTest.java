@@ -0,0 +1,168 @@
+package com.healthcare.appointmentsystem.cache;
+
+import com.healthcare.appointmentsystem.model.Doctor;
+import com.healthcare.appointmentsystem.model.DoctorAvailability;
+import com.healthcare.appointmentsystem.repository.DoctorAvailabilityRepository;
+import com.healthcare.appointmentsystem.repository.DoctorRepository;
+import com.healthcare.appointmentsystem.support.TestNodes;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes on one node must drop the second-level cache entries and cached
+ * query results that another node holds for the same rows. Every test
+ * first proves node B is answering from its cache, then writes on node A.
+ */
+class EntityCacheCoherenceTest {
+
+    private static final int NODE_A = 0;
+    private static final int NODE_B = 1;
+    private static final LocalDate DAY = LocalDate.now().plusDays(3);
+
+    private static TestNodes nodes;
+
+    @BeforeAll
+    static void startNodes() {
+        nodes = TestNodes.start(2);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodes.close();
+    }
+
+    @Test
+    void updateOnOneNodeEvictsTheEntityAndQueryResultsOnTheOther() {
+        String specialization = uniqueSpecialization();
+        Doctor doctor = doctors(NODE_A).save(doctor(specialization));
+        warm(doctor, specialization);
+
+        doctor.setOfficeLocation("Room 42");
+        doctors(NODE_A).save(doctor);
+
+        assertThat(isCached(NODE_B, Doctor.class, doctor.getId())).isFalse();
+        assertThat(doctors(NODE_B).findById(doctor.getId()).orElseThrow().getOfficeLocation()).isEqualTo("Room 42");
+        assertThat(doctors(NODE_B).findDoctorBySpecialization(specialization))
+                .extracting(Doctor::getOfficeLocation)
+                .containsExactly("Room 42");
+    }
+
+    @Test
+    void deleteOnOneNodeEvictsTheEntityAndQueryResultsOnTheOther() {
+        String specialization = uniqueSpecialization();
+        Doctor doctor = doctors(NODE_A).save(doctor(specialization));
+        warm(doctor, specialization);
+
+        doctors(NODE_A).deleteById(doctor.getId());
+
+        assertThat(isCached(NODE_B, Doctor.class, doctor.getId())).isFalse();
+        assertThat(doctors(NODE_B).findById(doctor.getId())).isEmpty();
+        assertThat(doctors(NODE_B).findDoctorBySpecialization(specialization)).isEmpty();
+    }
+
+    @Test
+    void insertOnOneNodeEvictsQueryResultsOnTheOther() {
+        String specialization = uniqueSpecialization();
+        Doctor doctor = doctors(NODE_A).save(doctor(specialization));
+        warm(doctor, specialization);
+
+        Doctor second = doctors(NODE_A).save(doctor(specialization));
+
+        assertThat(doctors(NODE_B).findDoctorBySpecialization(specialization))
+                .extracting(Doctor::getId)
+                .containsExactlyInAnyOrder(doctor.getId(), second.getId());
+    }
+
+    @Test
+    void availabilitiesForDateAreFreshOnTheOtherNodeAfterWrites() {
+        Doctor doctor = doctors(NODE_A).save(doctor(uniqueSpecialization()));
+        DoctorAvailability morning = availabilities(NODE_A).save(availability(doctor, 9, 12));
+        assertCachedQuery(() -> availabilitiesForDate(NODE_B, doctor));
+
+        // Insert
+        availabilities(NODE_A).save(availability(doctor, 13, 17));
+        assertThat(availabilitiesForDate(NODE_B, doctor))
+                .extracting(DoctorAvailability::getEndTime)
+                .containsExactlyInAnyOrder(LocalTime.of(12, 0), LocalTime.of(17, 0));
+
+        // Update
+        assertCachedQuery(() -> availabilitiesForDate(NODE_B, doctor));
+        morning.setEndTime(LocalTime.of(11, 0));
+        availabilities(NODE_A).save(morning);
+        assertThat(isCached(NODE_B, DoctorAvailability.class, morning.getId())).isFalse();
+        assertThat(availabilitiesForDate(NODE_B, doctor))
+                .extracting(DoctorAvailability::getEndTime)
+                .containsExactlyInAnyOrder(LocalTime.of(11, 0), LocalTime.of(17, 0));
+
+        // Delete
+        assertCachedQuery(() -> availabilitiesForDate(NODE_B, doctor));
+        availabilities(NODE_A).deleteById(morning.getId());
+        assertThat(availabilitiesForDate(NODE_B, doctor))
+                .extracting(DoctorAvailability::getEndTime)
+                .containsExactly(LocalTime.of(17, 0));
+    }
+
+    // Loads the doctor and the specialization query on node B and checks both are served from its cache
+    private static void warm(Doctor doctor, String specialization) {
+        doctors(NODE_B).findById(doctor.getId());
+        assertThat(isCached(NODE_B, Doctor.class, doctor.getId())).isTrue();
+        assertCachedQuery(() -> doctors(NODE_B).findDoctorBySpecialization(specialization));
+    }
+
+    // Runs the query twice on node B; the second run has to be a query cache hit
+    private static void assertCachedQuery(Runnable query) {
+        query.run();
+        long hits = statistics(NODE_B).getQueryCacheHitCount();
+        query.run();
+        assertThat(statistics(NODE_B).getQueryCacheHitCount()).isGreaterThan(hits);
+    }
+
+    private static List<DoctorAvailability> availabilitiesForDate(int node, Doctor doctor) {
+        return availabilities(node).findAvailabilitiesForDate(doctor.getId(), DAY, DAY.getDayOfWeek());
+    }
+
+    private static boolean isCached(int node, Class<?> entityType, Object id) {
+        return nodes.bean(node, EntityManagerFactory.class).getCache().contains(entityType, id);
+    }
+
+    private static Statistics statistics(int node) {
+        return nodes.bean(node, EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static DoctorRepository doctors(int node) {
+        return nodes.bean(node, DoctorRepository.class);
+    }
+
+    private static DoctorAvailabilityRepository availabilities(int node) {
+        return nodes.bean(node, DoctorAvailabilityRepository.class);
+    }
+
+    private static Doctor doctor(String specialization) {
+        return new Doctor("Test", "Doctor", specialization, "LIC-" + UUID.randomUUID());
+    }
+
+    private static DoctorAvailability availability(Doctor doctor, int fromHour, int toHour) {
+        DoctorAvailability availability = new DoctorAvailability();
+        availability.setDoctor(doctor);
+        availability.setSpecificDate(DAY);
+        availability.setStartTime(LocalTime.of(fromHour, 0));
+        availability.setEndTime(LocalTime.of(toHour, 0));
+        return availability;
+    }
+
+    // Keeps the specialization query of one test apart from the others
+    private static String uniqueSpecialization() {
+        return "Specialization-" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,152 @@
+package com.healthcare.appointmentsystem.coordination;
+
+import com.healthcare.appointmentsystem.dto.TimeSlotDTO;
+import com.healthcare.appointmentsystem.exception.ConflictException;
+import com.healthcare.appointmentsystem.model.Appointment;
+import com.healthcare.appointmentsystem.model.AppointmentStatus;
+import com.healthcare.appointmentsystem.model.Doctor;
+import com.healthcare.appointmentsystem.model.DoctorAvailability;
+import com.healthcare.appointmentsystem.model.Patient;
+import com.healthcare.appointmentsystem.repository.AppointmentRepository;
+import com.healthcare.appointmentsystem.repository.DoctorRepository;
+import com.healthcare.appointmentsystem.repository.PatientRepository;
+import com.healthcare.appointmentsystem.service.AppointmentService;
+import com.healthcare.appointmentsystem.service.DoctorAvailabilityService;
+import com.healthcare.appointmentsystem.support.TestNodes;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Bookings on two nodes sharing one database: the same slot is never booked
+ * twice, and a node's cached slots follow what the other node committed.
+ */
+class MultiNodeBookingTest {
+
+    private static final int NODE_A = 0;
+    private static final int NODE_B = 1;
+    private static final LocalDate DAY = LocalDate.now().plusDays(7);
+
+    private static TestNodes nodes;
+
+    @BeforeAll
+    static void startNodes() {
+        nodes = TestNodes.start(2);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodes.close();
+    }
+
+    @Test
+    void concurrentBookingsOfTheSameSlotOnTwoNodesCreateOneAppointment() throws Exception {
+        Doctor doctor = doctorWorking(DAY);
+        LocalDateTime start = DAY.atTime(10, 0);
+        int attempts = 8;
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                int node = i % 2;
+                Patient patient = patient();
+                Callable<Boolean> booking = () -> {
+                    go.await();
+                    try {
+                        book(node, doctor, patient, start);
+                        return true;
+                    } catch (ConflictException ex) {
+                        return false;
+                    }
+                };
+                results.add(executor.submit(booking));
+            }
+            go.countDown();
+            int booked = 0;
+            for (Future<Boolean> result : results) {
+                booked += result.get() ? 1 : 0;
+            }
+            assertThat(booked).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(nodes.bean(NODE_A, AppointmentRepository.class)
+                .findAppointmentsByDoctorIdAndDate(doctor.getId(), DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay()))
+                .hasSize(1);
+    }
+
+    @Test
+    void bookingOnOneNodeIsSeenByTheOtherNodesCachedDay() {
+        Doctor doctor = doctorWorking(DAY);
+        LocalDateTime start = DAY.atTime(11, 0);
+        // Node B loads the day into its occupancy and capacity caches first
+        assertThat(freeStarts(NODE_B, doctor)).contains(start);
+
+        book(NODE_A, doctor, patient(), start);
+
+        assertThat(freeStarts(NODE_B, doctor)).doesNotContain(start);
+        assertThatThrownBy(() -> book(NODE_B, doctor, patient(), start))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void cancellationOnOneNodeFreesTheSlotOnTheOtherNode() {
+        Doctor doctor = doctorWorking(DAY);
+        LocalDateTime start = DAY.atTime(14, 0);
+        Appointment appointment = book(NODE_A, doctor, patient(), start);
+        assertThat(freeStarts(NODE_B, doctor)).doesNotContain(start);
+
+        nodes.bean(NODE_A, AppointmentService.class).updateAppointmentStatus(appointment.getId(), AppointmentStatus.CANCELLED);
+
+        assertThat(freeStarts(NODE_B, doctor)).contains(start);
+        assertThat(book(NODE_B, doctor, patient(), start).getId()).isNotEqualTo(appointment.getId());
+    }
+
+    private static Appointment book(int node, Doctor doctor, Patient patient, LocalDateTime start) {
+        return nodes.bean(node, AppointmentService.class)
+                .createAppointment(new Appointment(doctor, patient, start, AppointmentStatus.SCHEDULED, "Checkup"));
+    }
+
+    private static List<LocalDateTime> freeStarts(int node, Doctor doctor) {
+        return nodes.bean(node, DoctorAvailabilityService.class).getAvailableTimeSlots(doctor.getId(), DAY).stream()
+                .map(TimeSlotDTO::getStartTime)
+                .toList();
+    }
+
+    // A fresh doctor per test, working 09:00-17:00 in 30 minute slots on the given day's weekday
+    private static Doctor doctorWorking(LocalDate day) {
+        Doctor doctor = nodes.bean(NODE_A, DoctorRepository.class).save(
+                new Doctor("Test", "Doctor", "Cardiology", "LIC-" + UUID.randomUUID()));
+        DoctorAvailability availability = new DoctorAvailability();
+        availability.setDoctor(doctor);
+        availability.setDayOfWeek(day.getDayOfWeek());
+        availability.setStartTime(LocalTime.of(9, 0));
+        availability.setEndTime(LocalTime.of(17, 0));
+        availability.setSlotDuration(30);
+        nodes.bean(NODE_A, DoctorAvailabilityService.class).createDoctorAvailability(availability);
+        return doctor;
+    }
+
+    private static Patient patient() {
+        Patient patient = new Patient();
+        patient.setFirstName("Test");
+        patient.setLastName("Patient");
+        return nodes.bean(NODE_A, PatientRepository.class).save(patient);
+    }
+}
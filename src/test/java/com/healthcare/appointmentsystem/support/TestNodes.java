@@ -0,0 +1,68 @@
+package com.healthcare.appointmentsystem.support;
+
+import com.healthcare.appointmentsystem.NodeTestApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Several application contexts in one JVM, each standing in for a node,
+ * all on the same PostgreSQL database. With the local coordination provider
+ * they share LocalDistributedLock's lock table and receive each other's
+ * LocalInvalidationBus messages, like nodes on a real cluster would.
+ */
+public final class TestNodes implements AutoCloseable {
+
+    // One database for the whole test run; the container is removed when the JVM exits
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static {
+        POSTGRES.start();
+    }
+
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    private TestNodes() {
+    }
+
+    // Nodes start one after the other, so only the first one creates the schema
+    public static TestNodes start(int count, String... properties) {
+        TestNodes testNodes = new TestNodes();
+        try {
+            for (int i = 0; i < count; i++) {
+                testNodes.nodes.add(new SpringApplicationBuilder(NodeTestApplication.class)
+                        .web(WebApplicationType.SERVLET)
+                        .properties(
+                                "spring.datasource.url=" + POSTGRES.getJdbcUrl(),
+                                "spring.datasource.username=" + POSTGRES.getUsername(),
+                                "spring.datasource.password=" + POSTGRES.getPassword(),
+                                "spring.jpa.hibernate.ddl-auto=update",
+                                "server.port=0",
+                                "spring.jmx.enabled=false",
+                                "spring.main.banner-mode=off",
+                                "app.coordination.provider=local",
+                                "app.jwt.secret=test-secret-test-secret-test-secret-test-secret-test-secret-test-secret")
+                        .properties(properties)
+                        .run());
+            }
+        } catch (RuntimeException ex) {
+            testNodes.close();
+            throw ex;
+        }
+        return testNodes;
+    }
+
+    public <T> T bean(int node, Class<T> type) {
+        return nodes.get(node).getBean(type);
+    }
+
+    @Override
+    public void close() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+        nodes.clear();
+    }
+}